@@ -0,0 +1,55 @@
+package com.flowpay.atendimento.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import java.security.Principal;
+
+/**
+ * Identifica o atendente da sessão STOMP pelo cabeçalho atendenteId do frame CONNECT.
+ *
+ * O atendente passa a ser o usuário da sessão, então /user/queue/atendimentos entrega
+ * somente o que foi atribuído a ele. Conexões sem o cabeçalho (ex.: supervisores)
+ * continuam anônimas e usam os tópicos agregados.
+ */
+@Slf4j
+public class AtendenteChannelInterceptor implements ChannelInterceptor {
+
+    static final String HEADER_ATENDENTE_ID = "atendenteId";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String atendenteId = accessor.getFirstNativeHeader(HEADER_ATENDENTE_ID);
+        if (atendenteId == null || atendenteId.isBlank()) {
+            return message;
+        }
+
+        try {
+            accessor.setUser(new AtendentePrincipal(Long.parseLong(atendenteId.trim())));
+            log.debug("[WS] Sessão {} identificada como atendente {}", accessor.getSessionId(), atendenteId);
+        } catch (NumberFormatException e) {
+            log.warn("[WS] Cabeçalho atendenteId inválido na conexão: {}", atendenteId);
+        }
+
+        return message;
+    }
+
+    public record AtendentePrincipal(Long atendenteId) implements Principal {
+
+        @Override
+        public String getName() {
+            return atendenteId.toString();
+        }
+    }
+}
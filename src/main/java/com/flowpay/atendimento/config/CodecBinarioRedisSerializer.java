@@ -0,0 +1,312 @@
+package com.flowpay.atendimento.config;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Serializer binário para Atendimento e Atendente.
+ *
+ * Formato: byte mágico, versão do formato, tipo do registro, máscara de campos presentes
+ * (varint) e os campos presentes em ordem fixa. IDs e cargas são varints, enums são
+ * gravados pelo ordinal e datas como epoch millis (UTC, zigzag varint); textos como
+ * tamanho (varint) + UTF-8. Por usar ordinais, constantes novas de Time e
+ * StatusAtendimento devem ser adicionadas ao final do enum.
+ *
+ * A leitura aceita os dois formatos: valores que não começam com o byte mágico são
+ * lidos pelo serializer JSON. flowpay.redis.codec escolhe apenas o formato de gravação,
+ * então registros gravados antes da troca (em qualquer direção) continuam legíveis e
+ * passam ao novo formato quando regravados. Demais tipos (IDs em sets e sorted sets, campos de hash) continuam
+ * em JSON, mantendo os membros existentes compatíveis.
+ */
+public class CodecBinarioRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGICO = (byte) 0xB7;
+    static final byte VERSAO = 1;
+
+    private static final byte TIPO_ATENDIMENTO = 1;
+    private static final byte TIPO_ATENDENTE = 2;
+
+    private static final Time[] TIMES = Time.values();
+    private static final StatusAtendimento[] STATUS = StatusAtendimento.values();
+
+    private final RedisSerializer<Object> json;
+    private final boolean gravarBinario;
+
+    public CodecBinarioRedisSerializer(RedisSerializer<Object> json, boolean gravarBinario) {
+        this.json = json;
+        this.gravarBinario = gravarBinario;
+    }
+
+    @Override
+    public byte[] serialize(Object valor) throws SerializationException {
+        if (!gravarBinario) {
+            return json.serialize(valor);
+        }
+        if (valor instanceof Atendimento atendimento) {
+            return codificar(atendimento);
+        }
+        if (valor instanceof Atendente atendente) {
+            return codificar(atendente);
+        }
+        return json.serialize(valor);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGICO) {
+            return json.deserialize(bytes);
+        }
+
+        Leitor leitor = new Leitor(bytes);
+        leitor.posicao = 1;
+
+        byte versao = leitor.lerByte();
+        if (versao != VERSAO) {
+            throw new SerializationException("Versão do codec binário não suportada: " + versao);
+        }
+
+        byte tipo = leitor.lerByte();
+        return switch (tipo) {
+            case TIPO_ATENDIMENTO -> decodificarAtendimento(leitor);
+            case TIPO_ATENDENTE -> decodificarAtendente(leitor);
+            default -> throw new SerializationException("Tipo de registro desconhecido no codec binário: " + tipo);
+        };
+    }
+
+    private static byte[] codificar(Atendimento atendimento) {
+        int presentes = presenca(
+                atendimento.getId(), atendimento.getTime(), atendimento.getAtendenteId(),
+                atendimento.getAssunto(), atendimento.getNomeCliente(), atendimento.getStatus(),
+                atendimento.getDataHoraCriacao(), atendimento.getDataHoraAtendimento(),
+                atendimento.getDataHoraFinalizacao());
+
+        Escritor escritor = new Escritor(64);
+        escritor.cabecalho(TIPO_ATENDIMENTO);
+        escritor.varint(presentes);
+
+        if (atendimento.getId() != null) {
+            escritor.varint(atendimento.getId());
+        }
+        if (atendimento.getTime() != null) {
+            escritor.varint(atendimento.getTime().ordinal());
+        }
+        if (atendimento.getAtendenteId() != null) {
+            escritor.varint(atendimento.getAtendenteId());
+        }
+        if (atendimento.getAssunto() != null) {
+            escritor.texto(atendimento.getAssunto());
+        }
+        if (atendimento.getNomeCliente() != null) {
+            escritor.texto(atendimento.getNomeCliente());
+        }
+        if (atendimento.getStatus() != null) {
+            escritor.varint(atendimento.getStatus().ordinal());
+        }
+        if (atendimento.getDataHoraCriacao() != null) {
+            escritor.data(atendimento.getDataHoraCriacao());
+        }
+        if (atendimento.getDataHoraAtendimento() != null) {
+            escritor.data(atendimento.getDataHoraAtendimento());
+        }
+        if (atendimento.getDataHoraFinalizacao() != null) {
+            escritor.data(atendimento.getDataHoraFinalizacao());
+        }
+
+        return escritor.bytes();
+    }
+
+    private static Atendimento decodificarAtendimento(Leitor leitor) {
+        int presentes = (int) leitor.varint();
+        Atendimento atendimento = new Atendimento();
+
+        if (presente(presentes, 0)) {
+            atendimento.setId(leitor.varint());
+        }
+        if (presente(presentes, 1)) {
+            atendimento.setTime(TIMES[(int) leitor.varint()]);
+        }
+        if (presente(presentes, 2)) {
+            atendimento.setAtendenteId(leitor.varint());
+        }
+        if (presente(presentes, 3)) {
+            atendimento.setAssunto(leitor.texto());
+        }
+        if (presente(presentes, 4)) {
+            atendimento.setNomeCliente(leitor.texto());
+        }
+        if (presente(presentes, 5)) {
+            atendimento.setStatus(STATUS[(int) leitor.varint()]);
+        }
+        if (presente(presentes, 6)) {
+            atendimento.setDataHoraCriacao(leitor.data());
+        }
+        if (presente(presentes, 7)) {
+            atendimento.setDataHoraAtendimento(leitor.data());
+        }
+        if (presente(presentes, 8)) {
+            atendimento.setDataHoraFinalizacao(leitor.data());
+        }
+
+        return atendimento;
+    }
+
+    private static byte[] codificar(Atendente atendente) {
+        int presentes = presenca(atendente.getId(), atendente.getTime(), atendente.getNome());
+
+        Escritor escritor = new Escritor(32);
+        escritor.cabecalho(TIPO_ATENDENTE);
+        escritor.varint(presentes);
+
+        if (atendente.getId() != null) {
+            escritor.varint(atendente.getId());
+        }
+        if (atendente.getTime() != null) {
+            escritor.varint(atendente.getTime().ordinal());
+        }
+        if (atendente.getNome() != null) {
+            escritor.texto(atendente.getNome());
+        }
+        escritor.varint(atendente.getAtendimentosAtivos());
+
+        return escritor.bytes();
+    }
+
+    private static Atendente decodificarAtendente(Leitor leitor) {
+        int presentes = (int) leitor.varint();
+        Atendente atendente = new Atendente();
+
+        if (presente(presentes, 0)) {
+            atendente.setId(leitor.varint());
+        }
+        if (presente(presentes, 1)) {
+            atendente.setTime(TIMES[(int) leitor.varint()]);
+        }
+        if (presente(presentes, 2)) {
+            atendente.setNome(leitor.texto());
+        }
+        atendente.setAtendimentosAtivos((int) leitor.varint());
+
+        return atendente;
+    }
+
+    private static int presenca(Object... campos) {
+        int presentes = 0;
+        for (int i = 0; i < campos.length; i++) {
+            if (campos[i] != null) {
+                presentes |= 1 << i;
+            }
+        }
+        return presentes;
+    }
+
+    private static boolean presente(int presentes, int campo) {
+        return (presentes & (1 << campo)) != 0;
+    }
+
+    private static final class Escritor {
+
+        private byte[] buffer;
+        private int tamanho;
+
+        Escritor(int capacidade) {
+            this.buffer = new byte[capacidade];
+        }
+
+        void cabecalho(byte tipo) {
+            garantir(3);
+            buffer[tamanho++] = MAGICO;
+            buffer[tamanho++] = VERSAO;
+            buffer[tamanho++] = tipo;
+        }
+
+        void varint(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                buffer[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            buffer[tamanho++] = (byte) valor;
+        }
+
+        void data(LocalDateTime data) {
+            long millis = data.toInstant(ZoneOffset.UTC).toEpochMilli();
+            varint((millis << 1) ^ (millis >> 63));
+        }
+
+        void texto(String texto) {
+            byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            garantir(utf8.length);
+            System.arraycopy(utf8, 0, buffer, tamanho, utf8.length);
+            tamanho += utf8.length;
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(buffer, tamanho);
+        }
+
+        private void garantir(int adicionais) {
+            if (tamanho + adicionais > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, tamanho + adicionais));
+            }
+        }
+    }
+
+    private static final class Leitor {
+
+        private final byte[] bytes;
+        private int posicao;
+
+        Leitor(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte lerByte() {
+            if (posicao >= bytes.length) {
+                throw new SerializationException("Registro binário truncado");
+            }
+            return bytes[posicao++];
+        }
+
+        long varint() {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                byte b = lerByte();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new SerializationException("Varint inválido no registro binário");
+        }
+
+        LocalDateTime data() {
+            long zigzag = varint();
+            long millis = (zigzag >>> 1) ^ -(zigzag & 1);
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                    (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+        }
+
+        String texto() {
+            int tamanho = (int) varint();
+            if (posicao + tamanho > bytes.length) {
+                throw new SerializationException("Registro binário truncado");
+            }
+            String texto = new String(bytes, posicao, tamanho, StandardCharsets.UTF_8);
+            posicao += tamanho;
+            return texto;
+        }
+    }
+}
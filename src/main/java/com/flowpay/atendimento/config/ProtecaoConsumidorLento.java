@@ -0,0 +1,290 @@
+package com.flowpay.atendimento.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Proteção do broker STOMP contra sessões lentas.
+ *
+ * O atraso de uma sessão se acumula no buffer de envio da própria sessão, não no canal
+ * de saída: o envio ao socket é feito por uma thread por vez e as demais só enfileiram.
+ * Por isso cada sessão é decorada (WebSocketConfig.configureWebSocketTransport) com uma
+ * fila própria, escrita no socket por uma virtual thread da sessão.
+ *
+ * Conflação: para os destinos em flowpay.websocket.conflacao.destinos (por padrão
+ * /topic/metricas) só interessa a última mensagem. Um frame MESSAGE desses destinos que
+ * encontra outro da mesma assinatura ainda na fila toma o lugar dele, então uma sessão
+ * atrasada recebe apenas o estado mais recente, na posição do frame substituído.
+ *
+ * Como a fila fica nesta camada, os limites de tempo e de buffer de envio também são
+ * verificados aqui: a sessão que os excede é encerrada com CloseStatus.SESSION_NOT_RELIABLE,
+ * antes que acumule memória.
+ *
+ * Métricas: profundidade da fila do canal de saída, sessões derrubadas e frames conflacionados.
+ */
+@Component
+@Slf4j
+public class ProtecaoConsumidorLento implements WebSocketHandlerDecoratorFactory {
+
+    private static final String COMANDO_MESSAGE = "MESSAGE\n";
+
+    private final Set<String> destinosConflacionados;
+    private final ThreadPoolTaskExecutor executorSaida;
+    private final long tempoLimiteEnvioMs;
+    private final int bufferLimiteEnvioBytes;
+    private final Counter conflacionadas;
+    private final Counter sessoesDerrubadas;
+
+    public ProtecaoConsumidorLento(
+            MeterRegistry meterRegistry,
+            @Lazy @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor executorSaida,
+            @Value("${flowpay.websocket.conflacao.destinos:/topic/metricas}") Set<String> destinosConflacionados,
+            @Value("${flowpay.websocket.envio.tempo-limite-ms:10000}") long tempoLimiteEnvioMs,
+            @Value("${flowpay.websocket.envio.buffer-limite-bytes:524288}") int bufferLimiteEnvioBytes) {
+        this.executorSaida = executorSaida;
+        this.destinosConflacionados = Set.copyOf(destinosConflacionados);
+        this.tempoLimiteEnvioMs = tempoLimiteEnvioMs;
+        this.bufferLimiteEnvioBytes = bufferLimiteEnvioBytes;
+
+        Gauge.builder("flowpay.websocket.saida.fila", this, ProtecaoConsumidorLento::tamanhoFilaSaida)
+                .description("Mensagens aguardando no canal de saída do broker STOMP")
+                .register(meterRegistry);
+        this.conflacionadas = Counter.builder("flowpay.websocket.conflacionadas")
+                .description("Frames substituídos na fila da sessão por outro mais recente do mesmo destino")
+                .register(meterRegistry);
+        this.sessoesDerrubadas = Counter.builder("flowpay.websocket.sessoes.derrubadas")
+                .description("Sessões encerradas por excederem o tempo ou o buffer de envio")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(decorar(session));
+            }
+        };
+    }
+
+    WebSocketSession decorar(WebSocketSession session) {
+        return new SessaoConflacionada(session);
+    }
+
+    @EventListener
+    public void sessaoEncerrada(SessionDisconnectEvent event) {
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            sessoesDerrubadas.increment();
+            log.warn("[WS] Sessão {} encerrada por não acompanhar o envio (tempo ou buffer excedido)",
+                    event.getSessionId());
+        }
+    }
+
+    /**
+     * Chave de conflação de um frame (destino + assinatura) ou null se o frame não é um
+     * MESSAGE de um destino conflacionado. Lê só os cabeçalhos do frame STOMP codificado.
+     */
+    String chaveConflacao(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage texto)) {
+            return null;
+        }
+
+        String frame = texto.getPayload();
+        if (!frame.startsWith(COMANDO_MESSAGE)) {
+            return null;
+        }
+
+        int fimCabecalhos = frame.indexOf("\n\n");
+        if (fimCabecalhos < 0) {
+            return null;
+        }
+
+        String destino = cabecalho(frame, "destination", fimCabecalhos);
+        if (destino == null || !destinosConflacionados.contains(destino)) {
+            return null;
+        }
+        return destino + "|" + cabecalho(frame, "subscription", fimCabecalhos);
+    }
+
+    private static String cabecalho(String frame, String nome, int fimCabecalhos) {
+        int inicio = frame.indexOf("\n" + nome + ":", COMANDO_MESSAGE.length() - 1);
+        if (inicio < 0 || inicio >= fimCabecalhos) {
+            return null;
+        }
+
+        inicio += nome.length() + 2;
+        int fim = frame.indexOf('\n', inicio);
+        return frame.substring(inicio, fim);
+    }
+
+    private int tamanhoFilaSaida() {
+        return executorSaida.getThreadPoolExecutor().getQueue().size();
+    }
+
+    /**
+     * Sessão com fila de envio própria. sendMessage só enfileira (ou substitui um frame
+     * conflacionável) e nunca bloqueia; uma virtual thread da sessão, iniciada quando há
+     * frames pendentes, escreve no socket um frame por vez.
+     */
+    private final class SessaoConflacionada extends WebSocketSessionDecorator {
+
+        // Frames pendentes e índice dos conflacionáveis; protegidos pelo monitor da fila
+        private final Deque<Pendente> fila = new ArrayDeque<>();
+        private final Map<String, Pendente> conflacionaveis = new HashMap<>();
+        private int bytesPendentes;
+        private boolean escrevendo;
+        private boolean encerrada;
+
+        // Início do envio em andamento ao socket; 0 quando nenhum envio está em andamento
+        private volatile long envioIniciadoEm;
+
+        SessaoConflacionada(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            String chave = chaveConflacao(message);
+
+            synchronized (fila) {
+                if (encerrada) {
+                    return;
+                }
+
+                Pendente substituido = chave != null ? conflacionaveis.get(chave) : null;
+                if (substituido != null) {
+                    bytesPendentes += message.getPayloadLength() - substituido.mensagem.getPayloadLength();
+                    substituido.mensagem = message;
+                    conflacionadas.increment();
+                } else {
+                    Pendente pendente = new Pendente(message, chave);
+                    fila.add(pendente);
+                    bytesPendentes += message.getPayloadLength();
+                    if (chave != null) {
+                        conflacionaveis.put(chave, pendente);
+                    }
+                }
+
+                verificarLimites();
+
+                if (!escrevendo) {
+                    escrevendo = true;
+                    Thread.ofVirtual().name("ws-envio-" + getId()).start(this::escrever);
+                }
+            }
+        }
+
+        private void verificarLimites() throws SessionLimitExceededException {
+            long iniciado = envioIniciadoEm;
+            if (iniciado != 0 && System.currentTimeMillis() - iniciado > tempoLimiteEnvioMs) {
+                exceder("Envio para a sessão " + getId() + " passou de " + tempoLimiteEnvioMs + " ms");
+            }
+            if (bytesPendentes > bufferLimiteEnvioBytes) {
+                exceder("Buffer de envio da sessão " + getId() + " passou de " + bufferLimiteEnvioBytes + " bytes");
+            }
+        }
+
+        private void exceder(String motivo) throws SessionLimitExceededException {
+            descartarPendentes();
+            // Tratada pelo SubProtocolWebSocketHandler, que encerra a sessão com o status informado
+            throw new SessionLimitExceededException(motivo, CloseStatus.SESSION_NOT_RELIABLE);
+        }
+
+        private void escrever() {
+            try {
+                while (true) {
+                    Pendente pendente;
+                    synchronized (fila) {
+                        pendente = fila.poll();
+                        if (pendente == null || encerrada) {
+                            escrevendo = false;
+                            return;
+                        }
+                        bytesPendentes -= pendente.mensagem.getPayloadLength();
+                        if (pendente.chave != null) {
+                            conflacionaveis.remove(pendente.chave, pendente);
+                        }
+                    }
+
+                    envioIniciadoEm = System.currentTimeMillis();
+                    try {
+                        getDelegate().sendMessage(pendente.mensagem);
+                    } finally {
+                        envioIniciadoEm = 0;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("[WS] Falha ao enviar para a sessão {}: {}", getId(), e.getMessage());
+                synchronized (fila) {
+                    descartarPendentes();
+                    escrevendo = false;
+                }
+                fecharAposFalha();
+            }
+        }
+
+        private void fecharAposFalha() {
+            try {
+                getDelegate().close(CloseStatus.SERVER_ERROR);
+            } catch (IOException | RuntimeException e) {
+                log.debug("[WS] Sessão {} já estava encerrada: {}", getId(), e.getMessage());
+            }
+        }
+
+        private void descartarPendentes() {
+            encerrada = true;
+            fila.clear();
+            conflacionaveis.clear();
+            bytesPendentes = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            close(CloseStatus.NORMAL);
+        }
+
+        @Override
+        public void close(CloseStatus status) throws IOException {
+            synchronized (fila) {
+                descartarPendentes();
+            }
+            super.close(status);
+        }
+    }
+
+    private static final class Pendente {
+
+        private WebSocketMessage<?> mensagem;
+        private final String chave;
+
+        Pendente(WebSocketMessage<?> mensagem, String chave) {
+            this.mensagem = mensagem;
+            this.chave = chave;
+        }
+    }
+}
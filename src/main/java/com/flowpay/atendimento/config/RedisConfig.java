@@ -3,20 +3,32 @@ package com.flowpay.atendimento.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @Profile("redis")
+@Slf4j
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(
+            RedisConnectionFactory connectionFactory,
+            @Value("${flowpay.redis.codec:json}") String codec,
+            @Value("${flowpay.distribuicao.modo:sincrono}") String modoDistribuicao) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -24,17 +36,62 @@ public class RedisConfig {
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-        GenericJackson2JsonRedisSerializer jsonSerializer =
+        RedisSerializer<Object> jsonSerializer =
                 new GenericJackson2JsonRedisSerializer(objectMapper);
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
+        RedisSerializer<Object> valueSerializer = valueSerializer(codec, modoDistribuicao, jsonSerializer);
 
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
 
         template.afterPropertiesSet();
 
         return template;
     }
+
+    /**
+     * flowpay.redis.codec escolhe o formato gravado (json ou binario); os dois formatos
+     * são sempre lidos, permitindo trocar o codec nos dois sentidos sem migrar os dados.
+     */
+    private static RedisSerializer<Object> valueSerializer(
+            String codec, String modoDistribuicao, RedisSerializer<Object> jsonSerializer) {
+        boolean gravarBinario = switch (codec) {
+            case "json" -> false;
+            case "binario" -> {
+                // Os scripts Lua leem e regravam os atendimentos em JSON (cjson)
+                if ("redis-lua".equals(modoDistribuicao)) {
+                    throw new IllegalStateException(
+                            "flowpay.redis.codec=binario não é compatível com flowpay.distribuicao.modo=redis-lua");
+                }
+                yield true;
+            }
+            default -> throw new IllegalArgumentException(
+                    "flowpay.redis.codec inválido: " + codec + " (valores aceitos: json, binario)");
+        };
+        return new CodecBinarioRedisSerializer(jsonSerializer, gravarBinario);
+    }
+
+    /**
+     * Container do pub/sub (relay WebSocket e invalidação do cache de atendentes).
+     *
+     * Sem executor próprio o Spring Data Redis abre uma thread por mensagem, o que entrega
+     * as mensagens fora de ordem. Uma única thread consumidora, com fila limitada, mantém a
+     * ordem de publicação; com a fila cheia a mensagem é descartada.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            @Value("${flowpay.redis.pubsub.capacidade:10000}") int capacidade) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidade),
+                Thread.ofVirtual().name("redis-pubsub-", 0).factory(),
+                (tarefa, pool) -> log.warn("Mensagem do pub/sub descartada: fila de {} mensagens cheia", capacidade));
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        return container;
+    }
 }
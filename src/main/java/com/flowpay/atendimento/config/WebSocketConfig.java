@@ -1,19 +1,41 @@
 package com.flowpay.atendimento.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ProtecaoConsumidorLento protecaoConsumidorLento;
+    private final int tempoLimiteEnvioMs;
+    private final int bufferLimiteEnvioBytes;
+    private final int tamanhoMaximoMensagemBytes;
+
+    public WebSocketConfig(
+            ProtecaoConsumidorLento protecaoConsumidorLento,
+            @Value("${flowpay.websocket.envio.tempo-limite-ms:10000}") int tempoLimiteEnvioMs,
+            @Value("${flowpay.websocket.envio.buffer-limite-bytes:524288}") int bufferLimiteEnvioBytes,
+            @Value("${flowpay.websocket.mensagem.tamanho-maximo-bytes:65536}") int tamanhoMaximoMensagemBytes) {
+        this.protecaoConsumidorLento = protecaoConsumidorLento;
+        this.tempoLimiteEnvioMs = tempoLimiteEnvioMs;
+        this.bufferLimiteEnvioBytes = bufferLimiteEnvioBytes;
+        this.tamanhoMaximoMensagemBytes = tamanhoMaximoMensagemBytes;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+        // O canal de saída tem várias threads; sem isso mensagens da mesma sessão podem se inverter
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -22,4 +44,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Sessão que passa do tempo ou do buffer de envio é encerrada (SESSION_NOT_RELIABLE)
+        registration.setSendTimeLimit(tempoLimiteEnvioMs)
+                .setSendBufferSizeLimit(bufferLimiteEnvioBytes)
+                .setMessageSizeLimit(tamanhoMaximoMensagemBytes);
+
+        // Fila de envio por sessão com conflação; é nela que o atraso de uma sessão se acumula
+        registration.addDecoratorFactory(protecaoConsumidorLento);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new AtendenteChannelInterceptor());
+    }
 }
@@ -3,19 +3,23 @@ package com.flowpay.atendimento.controller;
 import com.flowpay.atendimento.dto.response.AtendenteResponse;
 import com.flowpay.atendimento.dto.response.AtendimentoResponse;
 import com.flowpay.atendimento.dto.response.DashboardMetricasResponse;
+import com.flowpay.atendimento.dto.response.DashboardSincronizacaoResponse;
 import com.flowpay.atendimento.dto.response.TimeStatusResponse;
-import com.flowpay.atendimento.model.StatusAtendimento;
 import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendenteService;
-import com.flowpay.atendimento.service.AtendimentoService;
 import com.flowpay.atendimento.service.FilaService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import com.flowpay.atendimento.service.impl.FluxoDashboard;
+import com.flowpay.atendimento.service.impl.TransmissorSse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,9 +32,11 @@ import java.util.stream.Collectors;
 @Tag(name = "Dashboard", description = "Métricas e dados para visualização no dashboard")
 public class DashboardController {
 
-    private final AtendimentoService atendimentoService;
     private final AtendenteService atendenteService;
     private final FilaService filaService;
+    private final RegistroMetricas registroMetricas;
+    private final FluxoDashboard fluxoDashboard;
+    private final TransmissorSse transmissorSse;
 
     @Operation(
         summary = "Obter métricas gerais",
@@ -40,30 +46,19 @@ public class DashboardController {
     @GetMapping("/metricas")
     public ResponseEntity<DashboardMetricasResponse> obterMetricas() {
 
-        int totalAtivos = atendimentoService.listarPorStatus(StatusAtendimento.EM_ATENDIMENTO)
-                .size();
-
-        int totalFila = Arrays.stream(Time.values())
-                .mapToInt(filaService::tamanhoFila)
-                .sum();
-
-        List<com.flowpay.atendimento.model.Atendente> todosAtendentes = atendenteService.listarTodos();
-        int totalAtendentes = todosAtendentes.size();
-        int atendentesDisponiveis = (int) todosAtendentes.stream()
-                .filter(com.flowpay.atendimento.model.Atendente::isDisponivel)
-                .count();
+        // Contadores incrementais: O(times), sem listar atendimentos nem atendentes
+        RegistroMetricas.Contagens contagens = registroMetricas.contagens();
+        int totalAtivos = contagens.totalAtendimentosAtivos();
+        int totalFila = contagens.totalNaFila();
+        int totalAtendentes = contagens.totalAtendentes();
+        int atendentesDisponiveis = contagens.atendentesDisponiveis();
 
         Map<Time, Integer> filasPorTime = new HashMap<>();
         Map<Time, Integer> ativosPorTime = new HashMap<>();
 
         for (Time time : Time.values()) {
-            filasPorTime.put(time, filaService.tamanhoFila(time));
-
-            int ativos = (int) atendimentoService.listarPorTime(time)
-                    .stream()
-                    .filter(a -> a.getStatus() == StatusAtendimento.EM_ATENDIMENTO)
-                    .count();
-            ativosPorTime.put(time, ativos);
+            filasPorTime.put(time, contagens.time(time).tamanhoFila());
+            ativosPorTime.put(time, contagens.time(time).atendimentosAtivos());
         }
 
         DashboardMetricasResponse metricas = DashboardMetricasResponse.builder()
@@ -98,10 +93,7 @@ public class DashboardController {
                 .map(AtendimentoResponse::fromEntity)
                 .collect(Collectors.toList());
 
-        int ativos = (int) atendimentoService.listarPorTime(time)
-                .stream()
-                .filter(a -> a.getStatus() == StatusAtendimento.EM_ATENDIMENTO)
-                .count();
+        int ativos = registroMetricas.contagem(time).atendimentosAtivos();
 
         TimeStatusResponse status = TimeStatusResponse.builder()
                 .time(time)
@@ -113,4 +105,35 @@ public class DashboardController {
 
         return ResponseEntity.ok(status);
     }
+
+    @Operation(
+        summary = "Ressincronizar o fluxo de deltas",
+        description = "Retorna os deltas publicados após a sequência informada ou, se já " +
+                     "tiverem saído do histórico ou a época for de outra instância, um snapshot " +
+                     "completo para recomeçar"
+    )
+    @GetMapping("/sincronizar")
+    public ResponseEntity<DashboardSincronizacaoResponse> sincronizar(
+            @Parameter(description = "Época do fluxo acompanhado pelo cliente (campo e dos deltas)", example = "k3x9q1")
+            @RequestParam(required = false) String epoca,
+            @Parameter(description = "Última sequência aplicada pelo cliente", example = "42")
+            @RequestParam long desde) {
+
+        return ResponseEntity.ok(fluxoDashboard.sincronizar(epoca, desde));
+    }
+
+    @Operation(
+        summary = "Stream de eventos do dashboard (SSE)",
+        description = "Server-Sent Events com os eventos de métricas (metricas) e de filas (fila), " +
+                     "no mesmo formato das mensagens WebSocket. Ao conectar, envia o último evento de cada tipo"
+    )
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "Tipos de evento (padrão: todos)", example = "METRICAS")
+            @RequestParam(required = false) Set<TransmissorSse.TipoEvento> tipos) {
+
+        return transmissorSse.conectar(tipos == null || tipos.isEmpty()
+                ? EnumSet.allOf(TransmissorSse.TipoEvento.class)
+                : tipos);
+    }
 }
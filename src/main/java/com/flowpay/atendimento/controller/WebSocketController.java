@@ -1,18 +1,34 @@
 package com.flowpay.atendimento.controller;
 
+import com.flowpay.atendimento.dto.websocket.DashboardSnapshotMessage;
+import com.flowpay.atendimento.service.impl.FluxoDashboard;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 @Controller
+@RequiredArgsConstructor
 @Slf4j
 public class WebSocketController {
 
+    private final FluxoDashboard fluxoDashboard;
+
     @MessageMapping("/ping")
     @SendTo("/topic/pong")
     public String handlePing(String message) {
         log.info("Recebido ping: {}", message);
         return "pong: " + message;
     }
+
+    /**
+     * Snapshot inicial do dashboard, respondido somente a quem assina /app/dashboard.
+     * Os deltas seguintes chegam em /topic/dashboard/delta.
+     */
+    @SubscribeMapping("/dashboard")
+    public DashboardSnapshotMessage snapshotDashboard() {
+        return fluxoDashboard.snapshot();
+    }
 }
@@ -0,0 +1,24 @@
+package com.flowpay.atendimento.dto.response;
+
+import com.flowpay.atendimento.dto.websocket.DashboardDeltaMessage;
+import com.flowpay.atendimento.dto.websocket.DashboardSnapshotMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resposta da ressincronização do fluxo de deltas.
+ * Traz os deltas perdidos quando ainda estão no histórico; caso contrário, um snapshot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSincronizacaoResponse {
+
+    private DashboardSnapshotMessage snapshot;
+    private List<DashboardDeltaMessage> deltas;
+}
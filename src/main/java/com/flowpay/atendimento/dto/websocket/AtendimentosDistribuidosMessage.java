@@ -0,0 +1,20 @@
+package com.flowpay.atendimento.dto.websocket;
+
+import com.flowpay.atendimento.model.Time;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtendimentosDistribuidosMessage {
+
+    private Time time;
+    private int tamanhoFila;
+    private List<NovoAtendimentoMessage> atendimentos;
+}
@@ -0,0 +1,50 @@
+package com.flowpay.atendimento.dto.websocket;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.flowpay.atendimento.model.Time;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Alterações do dashboard desde a sequência anterior, em formato compacto.
+ *
+ * Exemplo: {"e":"k3x9q1","s":42,"a":[{"t":"CARTOES","c":"fila","v":3}]}
+ * "e" é a época do fluxo (instância que numerou a sequência). Se "s" não for exatamente
+ * a última sequência recebida + 1, o cliente perdeu mensagens e deve ressincronizar via
+ * GET /api/dashboard/sincronizar?epoca=E&desde=N.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDeltaMessage {
+
+    @JsonProperty("e")
+    private String epoca;
+
+    @JsonProperty("s")
+    private long sequencia;
+
+    @JsonProperty("a")
+    private List<Alteracao> alteracoes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Alteracao {
+
+        @JsonProperty("t")
+        private Time time;
+
+        // fila, ativos, atendentes ou disponiveis (mesmos nomes do snapshot)
+        @JsonProperty("c")
+        private String campo;
+
+        @JsonProperty("v")
+        private int valor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.flowpay.atendimento.dto.websocket;
+
+import com.flowpay.atendimento.model.Time;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Estado completo do dashboard em uma sequência do fluxo de deltas.
+ * Os deltas seguintes (sequencia + 1, + 2, ...) da mesma época são aplicados sobre este estado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSnapshotMessage {
+
+    private String epoca;
+    private long sequencia;
+    private Map<Time, EstadoTime> times;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EstadoTime {
+
+        private int fila;
+        private int ativos;
+        private int atendentes;
+        private int disponiveis;
+    }
+}
@@ -23,6 +23,7 @@ public class WebSocketMessage {
 
     public enum TipoMensagem {
         NOVO_ATENDIMENTO,
+        ATENDIMENTOS_DISTRIBUIDOS,
         ATENDIMENTO_FINALIZADO,
         FILA_ATUALIZADA,
         METRICAS_ATUALIZADAS,
@@ -1,36 +1,118 @@
 package com.flowpay.atendimento.model;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 @Data
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class Atendente {
 
     public static final int MAX_ATENDIMENTOS = 3;
 
+    private static final VarHandle ATENDIMENTOS_ATIVOS;
+
+    static {
+        try {
+            ATENDIMENTOS_ATIVOS = MethodHandles.lookup()
+                    .findVarHandle(Atendente.class, "atendimentosAtivos", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private Long id;
     private Time time;
     private String nome;
-    private int atendimentosAtivos;
+    private volatile int atendimentosAtivos;
+
+    // Observador opcional notificado a cada mudança de carga (ex.: índice por time em memória)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient ObservadorCarga observadorCarga;
+
+    // Builder e construtor só com os dados do atendente; o observador é ligado pelo serviço que o indexa
+    @Builder
+    public Atendente(Long id, Time time, String nome, int atendimentosAtivos) {
+        this.id = id;
+        this.time = time;
+        this.nome = nome;
+        this.atendimentosAtivos = atendimentosAtivos;
+    }
 
     public boolean isDisponivel() {
         return atendimentosAtivos < MAX_ATENDIMENTOS;
     }
 
+    public void setAtendimentosAtivos(int atendimentosAtivos) {
+        int anterior = this.atendimentosAtivos;
+        this.atendimentosAtivos = atendimentosAtivos;
+        notificarObservador(anterior, atendimentosAtivos);
+    }
+
+    /**
+     * Tenta ocupar uma vaga do atendente via CAS, sem lock.
+     * Retorna false se o atendente já está com MAX_ATENDIMENTOS, inclusive
+     * quando outra thread ocupou a última vaga concorrentemente.
+     */
+    public boolean tentarReservarVaga() {
+        int atual;
+        do {
+            atual = atendimentosAtivos;
+            if (atual >= MAX_ATENDIMENTOS) {
+                return false;
+            }
+        } while (!ATENDIMENTOS_ATIVOS.compareAndSet(this, atual, atual + 1));
+
+        notificarObservador(atual, atual + 1);
+        return true;
+    }
+
+    /**
+     * Libera uma vaga do atendente via CAS. Retorna false se não havia vaga ocupada.
+     */
+    public boolean liberarVaga() {
+        int atual;
+        do {
+            atual = atendimentosAtivos;
+            if (atual <= 0) {
+                return false;
+            }
+        } while (!ATENDIMENTOS_ATIVOS.compareAndSet(this, atual, atual - 1));
+
+        notificarObservador(atual, atual - 1);
+        return true;
+    }
+
     public void incrementarAtendimento() {
-        if (atendimentosAtivos < MAX_ATENDIMENTOS) {
-            atendimentosAtivos++;
-        }
+        tentarReservarVaga();
     }
 
     public void decrementarAtendimento() {
-        if (atendimentosAtivos > 0) {
-            atendimentosAtivos--;
+        liberarVaga();
+    }
+
+    private void notificarObservador(int anterior, int atual) {
+        if (observadorCarga != null && anterior != atual) {
+            observadorCarga.cargaAlterada(this, anterior, atual);
         }
     }
+
+    /**
+     * Recebe notificações sempre que a quantidade de atendimentos ativos muda.
+     * Anterior e atual são os valores exatos da transição aplicada (via CAS),
+     * mesmo que outra thread altere a carga logo em seguida.
+     */
+    @FunctionalInterface
+    public interface ObservadorCarga {
+
+        void cargaAlterada(Atendente atendente, int anterior, int atual);
+    }
 }
@@ -1,9 +1,12 @@
 package com.flowpay.atendimento.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -22,4 +25,28 @@ public class Atendimento {
     private LocalDateTime dataHoraCriacao;
     private LocalDateTime dataHoraAtendimento;
     private LocalDateTime dataHoraFinalizacao;
+
+    // Observador opcional notificado a cada mudança de status (ex.: índices em memória)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient ObservadorStatus observadorStatus;
+
+    public void setStatus(StatusAtendimento status) {
+        StatusAtendimento anterior = this.status;
+        this.status = status;
+
+        if (observadorStatus != null && anterior != status) {
+            observadorStatus.statusAlterado(this, anterior);
+        }
+    }
+
+    /**
+     * Recebe notificações sempre que o status do atendimento muda.
+     */
+    @FunctionalInterface
+    public interface ObservadorStatus {
+
+        void statusAlterado(Atendimento atendimento, StatusAtendimento anterior);
+    }
 }
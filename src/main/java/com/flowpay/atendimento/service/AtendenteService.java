@@ -3,6 +3,8 @@ package com.flowpay.atendimento.service;
 import com.flowpay.atendimento.model.Atendente;
 import com.flowpay.atendimento.model.Time;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +14,62 @@ public interface AtendenteService {
 
    List<Atendente> buscarDisponiveisPorTime(Time time);
 
+   /**
+    * Retorna o atendente disponível com menor carga do time (Least Connection).
+    * Implementações com índice por carga devem sobrescrever para evitar a listagem completa.
+    */
+   default Optional<Atendente> buscarMenosCarregadoPorTime(Time time) {
+      return buscarDisponiveisPorTime(time).stream().findFirst();
+   }
+
+   /**
+    * Reserva uma vaga no atendente de menor carga do time. Se outra requisição
+    * ocupar a vaga primeiro, tenta o próximo menos carregado.
+    * Retorna vazio quando todos os atendentes do time estão lotados.
+    * Implementações com storage compartilhado devem sobrescrever para que a reserva
+    * seja atômica no próprio storage, e não em uma cópia carregada do atendente.
+    */
+   default Optional<Atendente> reservarVaga(Time time) {
+      for (Atendente atendente : buscarDisponiveisPorTime(time)) {
+         if (atendente.tentarReservarVaga()) {
+            return Optional.of(atendente);
+         }
+      }
+      return Optional.empty();
+   }
+
+   /**
+    * Reserva até {@code quantidade} vagas no time, sempre no atendente de menor carga
+    * no momento de cada reserva. Um mesmo atendente pode aparecer mais de uma vez.
+    * A lista retornada segue a ordem das reservas (Least Connection).
+    */
+   default List<Atendente> reservarVagas(Time time, int quantidade) {
+      List<Atendente> candidatos = new ArrayList<>(buscarDisponiveisPorTime(time));
+      List<Atendente> reservados = new ArrayList<>();
+
+      while (reservados.size() < quantidade && !candidatos.isEmpty()) {
+         Atendente menosCarregado = candidatos.stream()
+                 .min(Comparator.comparingInt(Atendente::getAtendimentosAtivos))
+                 .get();
+
+         if (menosCarregado.tentarReservarVaga()) {
+            reservados.add(menosCarregado);
+         }
+         if (!menosCarregado.isDisponivel()) {
+            candidatos.remove(menosCarregado);
+         }
+      }
+      return reservados;
+   }
+
+   /**
+    * Libera uma vaga do atendente reservada por reservarVaga/reservarVagas.
+    * Retorna false se não havia vaga ocupada.
+    */
+   default boolean liberarVaga(Atendente atendente) {
+      return atendente.liberarVaga();
+   }
+
    Optional<Atendente> buscarPorId(Long id);
 
    List<Atendente> listarPorTime(Time time);
@@ -17,5 +17,23 @@ public interface AtendimentoService {
 
    List<Atendimento> listarPorStatus(StatusAtendimento status);
 
+   /**
+    * Lista os atendimentos de um time em um status específico.
+    * Implementações com índice por time e status devem sobrescrever para evitar a listagem completa.
+    */
+   default List<Atendimento> listarPorTimeEStatus(Time time, StatusAtendimento status) {
+      return listarPorTime(time).stream()
+              .filter(a -> a.getStatus() == status)
+              .toList();
+   }
+
    List<Atendimento> listarTodos();
+
+   /**
+    * Grava o estado atual de um atendimento alterado pela distribuição (status, atendente, datas).
+    * Em memória o atendimento alterado já é o próprio objeto guardado; implementações com
+    * storage externo devem sobrescrever.
+    */
+   default void persistir(Atendimento atendimento) {
+   }
 }
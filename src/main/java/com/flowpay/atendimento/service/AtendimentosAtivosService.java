@@ -0,0 +1,30 @@
+package com.flowpay.atendimento.service;
+
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Registro dos atendimentos em andamento (atribuídos e ainda não finalizados).
+ *
+ * Com o profile redis o registro é compartilhado entre as instâncias, então um
+ * atendimento pode ser finalizado em qualquer uma delas, sem sessão fixa.
+ */
+public interface AtendimentosAtivosService {
+
+   void registrar(Atendimento atendimento);
+
+   /**
+    * Remove o atendimento do registro. Entre chamadas concorrentes (inclusive de
+    * instâncias diferentes), somente uma recebe o atendimento; as demais recebem vazio.
+    */
+   Optional<Atendimento> remover(Long atendimentoId);
+
+   Optional<Atendimento> buscar(Long atendimentoId);
+
+   List<Atendimento> listar();
+
+   List<Atendimento> listarPorTime(Time time);
+}
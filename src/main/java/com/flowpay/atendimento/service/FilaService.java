@@ -11,6 +11,11 @@ public interface FilaService {
 
     Atendimento desenfileirar(Time time);
 
+    /**
+     * Remove de uma só vez até {@code quantidade} atendimentos do início da fila, em ordem FIFO.
+     */
+    List<Atendimento> desenfileirarLote(Time time, int quantidade);
+
     List<Atendimento> listarFila(Time time);
 
     int tamanhoFila(Time time);
@@ -4,11 +4,17 @@ import com.flowpay.atendimento.model.Atendente;
 import com.flowpay.atendimento.model.Atendimento;
 import com.flowpay.atendimento.model.Time;
 
+import java.util.List;
 
 public interface NotificacaoService {
 
     void notificarNovoAtendimento(Atendimento atendimento);
 
+    /**
+     * Notifica em uma única mensagem os atendimentos distribuídos de uma vez a partir da fila.
+     */
+    void notificarAtendimentosDistribuidos(Time time, List<Atendimento> atendimentos);
+
     void notificarAtualizacaoFila(Time time);
 
     void notificarAtendimentoFinalizado(Atendimento atendimento);
@@ -0,0 +1,82 @@
+package com.flowpay.atendimento.service;
+
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+
+import java.util.Map;
+
+/**
+ * Contadores das métricas do dashboard, mantidos incrementalmente.
+ *
+ * Cada transição (criação, enfileiramento, atribuição, finalização, cadastro de
+ * atendente, atendente lotado/liberado) ajusta os contadores do time, então ler
+ * as métricas custa O(times), sem listar atendimentos nem atendentes.
+ *
+ * No profile memory os contadores ficam na própria instância (InMemoryRegistroMetricas).
+ * No profile redis ficam em um hash por time no Redis (RedisRegistroMetricas), compartilhado
+ * entre as instâncias; as transições feitas pelos scripts Lua atualizam o hash no próprio
+ * script e não passam por aqui.
+ */
+public interface RegistroMetricas {
+
+    // ===== Transições =====
+
+    void atendimentoCriado(Time time);
+
+    void statusAlterado(Time time, StatusAtendimento anterior, StatusAtendimento atual);
+
+    void enfileirado(Time time);
+
+    void desenfileirados(Time time, int quantidade);
+
+    void atendenteCadastrado(Time time);
+
+    void atendenteRemovido(Time time, boolean lotado);
+
+    /**
+     * Registra que o atendente passou a ter vaga (true) ou ficou lotado (false).
+     */
+    void disponibilidadeAlterada(Time time, boolean disponivel);
+
+    // ===== Leituras O(times) =====
+
+    /**
+     * Contagens atuais de um time.
+     */
+    Contagem contagem(Time time);
+
+    /**
+     * Contagens atuais de todos os times, lidas de uma só vez.
+     */
+    Contagens contagens();
+
+    record Contagem(int atendimentosAtivos, int tamanhoFila, int atendentes, int atendentesLotados) {
+
+        public int atendentesDisponiveis() {
+            return atendentes - atendentesLotados;
+        }
+    }
+
+    record Contagens(Map<Time, Contagem> porTime) {
+
+        public Contagem time(Time time) {
+            return porTime.get(time);
+        }
+
+        public int totalAtendimentosAtivos() {
+            return porTime.values().stream().mapToInt(Contagem::atendimentosAtivos).sum();
+        }
+
+        public int totalNaFila() {
+            return porTime.values().stream().mapToInt(Contagem::tamanhoFila).sum();
+        }
+
+        public int totalAtendentes() {
+            return porTime.values().stream().mapToInt(Contagem::atendentes).sum();
+        }
+
+        public int atendentesDisponiveis() {
+            return porTime.values().stream().mapToInt(Contagem::atendentesDisponiveis).sum();
+        }
+    }
+}
@@ -5,20 +5,19 @@ import com.flowpay.atendimento.model.Atendente;
 import com.flowpay.atendimento.model.StatusAtendimento;
 import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendenteService;
+import com.flowpay.atendimento.service.AtendimentoService;
+import com.flowpay.atendimento.service.AtendimentosAtivosService;
 import com.flowpay.atendimento.service.DistribuidorService;
 import com.flowpay.atendimento.service.FilaService;
 import com.flowpay.atendimento.service.NotificacaoService;
-import lombok.RequiredArgsConstructor;
+import com.flowpay.atendimento.service.RegistroMetricas;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Implementação do serviço de distribuição de atendimentos.
@@ -31,21 +30,32 @@ import java.util.stream.Collectors;
  * Esta implementação é agnóstica de storage (funciona com Memory, Redis, etc.)
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DistribuidorServiceImpl implements DistribuidorService {
 
     private final FilaService filaService;
     private final AtendenteService atendenteService;
+    private final AtendimentoService atendimentoService;
     private final NotificacaoService notificacaoService;
-
-    // RedisTemplate opcional - só existe quando profile redis está ativo
-    @Autowired(required = false)
-    private RedisTemplate<String, Object> redisTemplate;
-
-    // Armazena atendimentos ativos (em andamento)
-    // Map: ID do atendimento -> Atendimento
-    private final Map<Long, Atendimento> atendimentosAtivos = new ConcurrentHashMap<>();
+    private final RegistroMetricas registroMetricas;
+
+    // Atendimentos em andamento; no profile redis, compartilhado entre as instâncias
+    private final AtendimentosAtivosService atendimentosAtivos;
+
+    public DistribuidorServiceImpl(
+            FilaService filaService,
+            AtendenteService atendenteService,
+            @Lazy AtendimentoService atendimentoService,
+            NotificacaoService notificacaoService,
+            RegistroMetricas registroMetricas,
+            AtendimentosAtivosService atendimentosAtivos) {
+        this.filaService = filaService;
+        this.atendenteService = atendenteService;
+        this.atendimentoService = atendimentoService;
+        this.notificacaoService = notificacaoService;
+        this.registroMetricas = registroMetricas;
+        this.atendimentosAtivos = atendimentosAtivos;
+    }
 
     @Override
     public void distribuir(Atendimento atendimento) {
@@ -61,24 +71,17 @@ public class DistribuidorServiceImpl implements DistribuidorService {
         log.info("   Time: {}", atendimento.getTime());
         log.info("═══════════════════════════════════════");
 
-        // Busca atendentes disponíveis do time
-        List<Atendente> disponiveis = atendenteService.buscarDisponiveisPorTime(atendimento.getTime());
-
-        // Log de debug para visualizar balanceamento
-        if (!disponiveis.isEmpty()) {
-            log.debug("Atendentes disponíveis (ordenados por carga): {}",
-                disponiveis.stream()
-                    .map(a -> String.format("%s(%d/3)", a.getNome(), a.getAtendimentosAtivos()))
-                    .collect(Collectors.joining(", ")));
-        }
+        // Reserva (via CAS) uma vaga no atendente de menor carga do time
+        Optional<Atendente> reservado = atendenteService.reservarVaga(atendimento.getTime());
 
-        if (disponiveis.isEmpty()) {
+        if (reservado.isEmpty()) {
             // Nenhum atendente disponível -> enfileira
             log.warn("⚠️  Nenhum atendente disponível no time {}. Enfileirando atendimento ID {}",
                     atendimento.getTime(), atendimento.getId());
 
-            atendimento.setStatus(StatusAtendimento.AGUARDANDO_ATENDIMENTO);
+            alterarStatus(atendimento, StatusAtendimento.AGUARDANDO_ATENDIMENTO);
             filaService.enfileirar(atendimento);
+            registroMetricas.enfileirado(atendimento.getTime());
 
             log.info("📋 Atendimento ID {} adicionado à fila. Tamanho atual da fila: {}",
                     atendimento.getId(), filaService.tamanhoFila(atendimento.getTime()));
@@ -86,10 +89,10 @@ public class DistribuidorServiceImpl implements DistribuidorService {
             // Notifica dashboard sobre atualização na fila
             notificacaoService.notificarAtualizacaoFila(atendimento.getTime());
         } else {
-            // Atendente disponível -> atribui ao primeiro da lista
-            log.info("✅ {} atendente(s) disponível(is) no time {}",
-                    disponiveis.size(), atendimento.getTime());
-            Atendente atendente = disponiveis.get(0);
+            // Vaga reservada -> atribui ao atendente de menor carga
+            Atendente atendente = reservado.get();
+            log.debug("Atendente de menor carga no time {}: {}({}/3)",
+                    atendimento.getTime(), atendente.getNome(), atendente.getAtendimentosAtivos());
             atribuirAtendimento(atendimento, atendente);
         }
     }
@@ -100,7 +103,7 @@ public class DistribuidorServiceImpl implements DistribuidorService {
         log.info("🏁 FINALIZANDO ATENDIMENTO");
         log.info("   ID: {}", atendimentoId);
 
-        Atendimento atendimento = atendimentosAtivos.remove(atendimentoId);
+        Atendimento atendimento = atendimentosAtivos.remover(atendimentoId).orElse(null);
 
         if (atendimento == null) {
             log.warn("⚠️  Tentativa de finalizar atendimento inexistente ou já finalizado: ID {}",
@@ -115,21 +118,16 @@ public class DistribuidorServiceImpl implements DistribuidorService {
         // Libera o atendente
         atendenteService.buscarPorId(atendimento.getAtendenteId())
                 .ifPresent(atendente -> {
-                    atendente.decrementarAtendimento();
-
-                    // Persiste mudança no Redis (se ativo)
-                    persistirAtendenteSeRedis(atendente);
+                    atendenteService.liberarVaga(atendente);
 
                     log.info("   Atendente {} liberado. Atendimentos ativos: {}/3",
                             atendente.getNome(), atendente.getAtendimentosAtivos());
                 });
 
         // Atualiza status do atendimento
-        atendimento.setStatus(StatusAtendimento.FINALIZADO);
+        alterarStatus(atendimento, StatusAtendimento.FINALIZADO);
         atendimento.setDataHoraFinalizacao(LocalDateTime.now());
-
-        // Persiste mudança no Redis (se ativo)
-        persistirAtendimentoSeRedis(atendimento);
+        atendimentoService.persistir(atendimento);
 
         log.info("✅ Atendimento finalizado com sucesso");
         log.info("═══════════════════════════════════════");
@@ -150,112 +148,107 @@ public class DistribuidorServiceImpl implements DistribuidorService {
             return;
         }
 
-        log.info("🔄 Processando fila do time {} (Tamanho: {})", time, tamanhoInicial);
+        log.info("🔄 Processando fila do time {} em lote (Tamanho: {})", time, tamanhoInicial);
 
-        List<Atendente> disponiveis = atendenteService.buscarDisponiveisPorTime(time);
-        int processados = 0;
+        // 1. Reserva de uma vez as vagas livres, limitadas ao tamanho da fila
+        List<Atendente> reservados = atendenteService.reservarVagas(time, tamanhoInicial);
 
-        while (!disponiveis.isEmpty() && filaService.tamanhoFila(time) > 0) {
-            // Remove próximo da fila
-            Atendimento proximoAtendimento = filaService.desenfileirar(time);
+        if (reservados.isEmpty()) {
+            log.warn("⚠️  Nenhuma vaga livre no time {}. {} atendimento(s) continuam aguardando",
+                    time, tamanhoInicial);
+            return;
+        }
 
-            if (proximoAtendimento == null) {
-                break; // Fila esvaziou
-            }
+        // 2. Retira da fila exatamente a quantidade de vagas reservadas, em uma única chamada
+        List<Atendimento> lote = filaService.desenfileirarLote(time, reservados.size());
+        registroMetricas.desenfileirados(time, lote.size());
 
-            // Atribui ao primeiro atendente disponível
-            Atendente atendente = disponiveis.get(0);
-            atribuirAtendimento(proximoAtendimento, atendente);
-            processados++;
+        // 3. Casa cada item da fila (FIFO) com a vaga reservada na mesma posição
+        for (int i = 0; i < lote.size(); i++) {
+            registrarAtribuicao(lote.get(i), reservados.get(i));
+        }
 
-            // Atualiza lista de disponíveis
-            disponiveis = atendenteService.buscarDisponiveisPorTime(time);
+        // Devolve vagas que sobraram (fila esvaziou entre a contagem e a retirada)
+        for (int i = lote.size(); i < reservados.size(); i++) {
+            atendenteService.liberarVaga(reservados.get(i));
         }
 
-        int restante = filaService.tamanhoFila(time);
+        int restante = tamanhoInicial - lote.size();
 
-        log.info("📊 Fila do time {}: {} processado(s), {} restante(s)",
-                time, processados, restante);
+        log.info("📊 Fila do time {}: {} processado(s), ~{} restante(s)",
+                time, lote.size(), restante);
 
         if (restante > 0) {
             log.warn("⚠️  Ainda há {} atendimento(s) aguardando no time {}",
                     restante, time);
         }
+
+        // 4. Uma única notificação para o lote inteiro
+        notificacaoService.notificarAtendimentosDistribuidos(time, lote);
     }
 
     /**
-     * Atribui um atendimento a um atendente específico.
-     * Método privado auxiliar para evitar duplicação de código.
+     * Atribui um atendimento a um atendente específico e notifica o dashboard.
+     * A vaga do atendente já deve ter sido reservada via AtendenteService.reservarVaga.
      */
     private void atribuirAtendimento(Atendimento atendimento, Atendente atendente) {
+        registrarAtribuicao(atendimento, atendente);
+
+        // Notifica dashboard
+        notificacaoService.notificarNovoAtendimento(atendimento);
+    }
+
+    /**
+     * Registra a atribuição (dados do atendimento, persistência e mapa de ativos) sem notificar.
+     * Método privado auxiliar para evitar duplicação de código.
+     */
+    private void registrarAtribuicao(Atendimento atendimento, Atendente atendente) {
         // Atualiza dados do atendimento
         atendimento.setAtendenteId(atendente.getId());
-        atendimento.setStatus(StatusAtendimento.EM_ATENDIMENTO);
+        alterarStatus(atendimento, StatusAtendimento.EM_ATENDIMENTO);
         atendimento.setDataHoraAtendimento(LocalDateTime.now());
 
-        // Incrementa contador do atendente
-        atendente.incrementarAtendimento();
-
-        // Persiste mudança no Redis (se ativo)
-        persistirAtendenteSeRedis(atendente);
-        persistirAtendimentoSeRedis(atendimento);
+        // A carga já foi gravada na reserva; grava o atendimento no storage
+        atendimentoService.persistir(atendimento);
 
-        // Armazena em memória como ativo
-        atendimentosAtivos.put(atendimento.getId(), atendimento);
+        // Registra como ativo (visível a todas as instâncias no profile redis)
+        atendimentosAtivos.registrar(atendimento);
 
         log.info("👤 Atendimento {} atribuído para {} (Time: {}). Carga: {}/3 (Least Connection)",
                 atendimento.getId(),
                 atendente.getNome(),
                 atendente.getTime(),
                 atendente.getAtendimentosAtivos());
-
-        // Notifica dashboard
-        notificacaoService.notificarNovoAtendimento(atendimento);
     }
 
     /**
-     * Método auxiliar para obter todos os atendimentos ativos.
-     * Útil para debugging e dashboard.
+     * Altera o status do atendimento e ajusta os contadores do dashboard.
      */
-    public List<Atendimento> listarAtendimentosAtivos() {
-        return List.copyOf(atendimentosAtivos.values());
+    private void alterarStatus(Atendimento atendimento, StatusAtendimento novoStatus) {
+        StatusAtendimento anterior = atendimento.getStatus();
+        atendimento.setStatus(novoStatus);
+        registroMetricas.statusAlterado(atendimento.getTime(), anterior, novoStatus);
     }
 
     /**
-     * Método auxiliar para obter atendimentos ativos de um time específico.
+     * Busca um atendimento ativo (em andamento) pelo ID.
      */
-    public List<Atendimento> listarAtendimentosAtivosPorTime(Time time) {
-        return atendimentosAtivos.values().stream()
-                .filter(a -> a.getTime() == time)
-                .toList();
+    public Optional<Atendimento> buscarAtendimentoAtivo(Long atendimentoId) {
+        return atendimentosAtivos.buscar(atendimentoId);
     }
 
     /**
-     * Persiste mudanças do atendente no Redis (se profile redis ativo).
-     * Quando usando Redis, as mudanças no objeto Atendente em memória
-     * precisam ser sincronizadas com o Redis.
+     * Método auxiliar para obter todos os atendimentos ativos.
+     * Útil para debugging e dashboard.
      */
-    private void persistirAtendenteSeRedis(Atendente atendente) {
-        if (redisTemplate != null) {
-            String key = "atendente:" + atendente.getId();
-            redisTemplate.opsForHash().put(key, "atendimentosAtivos",
-                    atendente.getAtendimentosAtivos());
-            log.debug("Atendente {} atualizado no Redis: {}/3 atendimentos",
-                    atendente.getId(), atendente.getAtendimentosAtivos());
-        }
+    public List<Atendimento> listarAtendimentosAtivos() {
+        return atendimentosAtivos.listar();
     }
 
     /**
-     * Persiste mudanças do atendimento no Redis (se profile redis ativo).
-     * Quando usando Redis, as mudanças no objeto Atendimento em memória
-     * precisam ser sincronizadas com o Redis.
+     * Método auxiliar para obter atendimentos ativos de um time específico.
      */
-    private void persistirAtendimentoSeRedis(Atendimento atendimento) {
-        if (redisTemplate != null) {
-            String key = "atendimento:" + atendimento.getId();
-            redisTemplate.opsForValue().set(key, atendimento);
-            log.debug("Atendimento {} atualizado no Redis: status={}",
-                    atendimento.getId(), atendimento.getStatus());
-        }
+    public List<Atendimento> listarAtendimentosAtivosPorTime(Time time) {
+        return atendimentosAtivos.listarPorTime(time);
     }
 }
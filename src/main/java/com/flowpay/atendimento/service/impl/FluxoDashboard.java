@@ -0,0 +1,169 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.dto.response.DashboardSincronizacaoResponse;
+import com.flowpay.atendimento.dto.websocket.DashboardDeltaMessage;
+import com.flowpay.atendimento.dto.websocket.DashboardSnapshotMessage;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fluxo do dashboard em deltas com número de sequência.
+ *
+ * O cliente recebe um snapshot ao assinar /app/dashboard e, a partir dele, apenas
+ * as alterações (time, campo, novo valor) publicadas em /topic/dashboard/delta.
+ * Cada delta tem a sequência anterior + 1; ao detectar um salto, o cliente chama
+ * GET /api/dashboard/sincronizar?desde=N e recebe os deltas perdidos, se ainda
+ * estiverem no histórico, ou um snapshot novo.
+ *
+ * A sequência e o histórico são desta instância. Cada instância (e cada reinício) numera
+ * o fluxo em uma época própria, enviada em todo delta e snapshot; um pedido de
+ * sincronização com outra época (ex.: balanceador levou o GET a outra instância)
+ * recebe um snapshot, nunca deltas de uma sequência que o cliente não acompanhou.
+ *
+ * O snapshot é sempre o último estado publicado, nunca o valor corrente dos
+ * contadores, para que os deltas seguintes se apliquem sobre ele sem lacunas.
+ */
+@Component
+@Slf4j
+public class FluxoDashboard {
+
+    public static final String DESTINO_DELTA = "/topic/dashboard/delta";
+
+    static final String CAMPO_FILA = "fila";
+    static final String CAMPO_ATIVOS = "ativos";
+    static final String CAMPO_ATENDENTES = "atendentes";
+    static final String CAMPO_DISPONIVEIS = "disponiveis";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RegistroAssinaturas registroAssinaturas;
+    private final int tamanhoHistorico;
+    private final String epoca = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    // Protegidos pelo monitor desta instância
+    private final Map<Time, DashboardSnapshotMessage.EstadoTime> ultimoEstado = new EnumMap<>(Time.class);
+    private final Deque<DashboardDeltaMessage> historico = new ArrayDeque<>();
+    private long sequencia;
+
+    public FluxoDashboard(
+            SimpMessagingTemplate messagingTemplate,
+            RegistroAssinaturas registroAssinaturas,
+            @Value("${flowpay.dashboard.delta.historico:1024}") int tamanhoHistorico) {
+        if (tamanhoHistorico < 1) {
+            throw new IllegalArgumentException("flowpay.dashboard.delta.historico deve ser maior que zero");
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.registroAssinaturas = registroAssinaturas;
+        this.tamanhoHistorico = tamanhoHistorico;
+
+        for (Time time : Time.values()) {
+            ultimoEstado.put(time, new DashboardSnapshotMessage.EstadoTime());
+        }
+    }
+
+    /**
+     * Compara as contagens lidas no tick com o último estado publicado e envia um delta
+     * com o que mudou. Sem alterações, nada é enviado e a sequência não avança.
+     */
+    public void publicarAlteracoes(RegistroMetricas.Contagens contagens) {
+        DashboardDeltaMessage delta;
+
+        synchronized (this) {
+            List<DashboardDeltaMessage.Alteracao> alteracoes = new ArrayList<>();
+
+            for (Time time : Time.values()) {
+                DashboardSnapshotMessage.EstadoTime estado = ultimoEstado.get(time);
+                RegistroMetricas.Contagem contagem = contagens.time(time);
+
+                int fila = contagem.tamanhoFila();
+                if (fila != estado.getFila()) {
+                    estado.setFila(fila);
+                    alteracoes.add(new DashboardDeltaMessage.Alteracao(time, CAMPO_FILA, fila));
+                }
+
+                int ativos = contagem.atendimentosAtivos();
+                if (ativos != estado.getAtivos()) {
+                    estado.setAtivos(ativos);
+                    alteracoes.add(new DashboardDeltaMessage.Alteracao(time, CAMPO_ATIVOS, ativos));
+                }
+
+                int atendentes = contagem.atendentes();
+                if (atendentes != estado.getAtendentes()) {
+                    estado.setAtendentes(atendentes);
+                    alteracoes.add(new DashboardDeltaMessage.Alteracao(time, CAMPO_ATENDENTES, atendentes));
+                }
+
+                int disponiveis = contagem.atendentesDisponiveis();
+                if (disponiveis != estado.getDisponiveis()) {
+                    estado.setDisponiveis(disponiveis);
+                    alteracoes.add(new DashboardDeltaMessage.Alteracao(time, CAMPO_DISPONIVEIS, disponiveis));
+                }
+            }
+
+            if (alteracoes.isEmpty()) {
+                return;
+            }
+
+            delta = new DashboardDeltaMessage(epoca, ++sequencia, List.copyOf(alteracoes));
+
+            historico.addLast(delta);
+            if (historico.size() > tamanhoHistorico) {
+                historico.removeFirst();
+            }
+
+            // Sem assinantes o delta só vai para o histórico; enviado dentro do monitor para manter a ordem
+            if (registroAssinaturas.temAssinantes(DESTINO_DELTA)) {
+                messagingTemplate.convertAndSend(DESTINO_DELTA, delta);
+            }
+        }
+
+        log.debug("[NOTIFICAÇÃO WS] Delta do dashboard {}: {} alteração(ões)",
+                delta.getSequencia(), delta.getAlteracoes().size());
+    }
+
+    /**
+     * Último estado publicado e a sequência correspondente.
+     */
+    public synchronized DashboardSnapshotMessage snapshot() {
+        Map<Time, DashboardSnapshotMessage.EstadoTime> times = new EnumMap<>(Time.class);
+        ultimoEstado.forEach((time, estado) -> times.put(time, new DashboardSnapshotMessage.EstadoTime(
+                estado.getFila(), estado.getAtivos(), estado.getAtendentes(), estado.getDisponiveis())));
+
+        return new DashboardSnapshotMessage(epoca, sequencia, times);
+    }
+
+    /**
+     * Deltas posteriores à sequência informada, se a época for a desta instância e todos
+     * ainda estiverem no histórico; caso contrário (ou se a sequência for desconhecida),
+     * o snapshot atual.
+     */
+    public synchronized DashboardSincronizacaoResponse sincronizar(String epocaCliente, long desde) {
+        DashboardDeltaMessage maisAntigo = historico.peekFirst();
+        boolean cobertoPeloHistorico = desde == sequencia
+                || (desde < sequencia && maisAntigo != null && desde >= maisAntigo.getSequencia() - 1);
+
+        if (Objects.equals(epoca, epocaCliente) && desde >= 0 && cobertoPeloHistorico) {
+            List<DashboardDeltaMessage> deltas = new ArrayList<>();
+            for (DashboardDeltaMessage delta : historico) {
+                if (delta.getSequencia() > desde) {
+                    deltas.add(delta);
+                }
+            }
+            return DashboardSincronizacaoResponse.builder().deltas(deltas).build();
+        }
+
+        return DashboardSincronizacaoResponse.builder().snapshot(snapshot()).build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.NotificacaoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Estágio assíncrono de notificações.
+ *
+ * As chamadas apenas enfileiram a notificação em uma fila limitada e retornam;
+ * uma thread dedicada executa o NotificacaoServiceImpl na ordem de chegada.
+ * Assim, a latência do WebSocket e das consultas ao storage não entra no tempo
+ * de resposta da API.
+ *
+ * Política quando há acúmulo:
+ * - atualizações de fila do mesmo time ainda pendentes são mescladas em uma só;
+ * - com a fila cheia, a notificação é descartada (as métricas continuam sendo
+ *   publicadas pelo PublicadorMetricas no próximo tick).
+ *
+ * Notificações para destinos sem assinantes são descartadas já aqui, antes da cópia
+ * e do enfileiramento (RegistroAssinaturas).
+ *
+ * Desativado com flowpay.notificacao.assincrona.habilitada=false.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "flowpay.notificacao.assincrona.habilitada", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NotificacaoAssincronaService implements NotificacaoService {
+
+    private static final long TIMEOUT_ENCERRAMENTO_MS = 5_000;
+
+    private final NotificacaoServiceImpl notificacao;
+    private final ThreadPoolExecutor executor;
+    private final Map<Time, AtomicBoolean> atualizacaoFilaPendente = new EnumMap<>(Time.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Timer latencia;
+    private final Counter mescladas;
+
+    public NotificacaoAssincronaService(
+            NotificacaoServiceImpl notificacao,
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.notificacao.assincrona.capacidade:10000}") int capacidade) {
+        this.notificacao = notificacao;
+        this.meterRegistry = meterRegistry;
+
+        for (Time time : Time.values()) {
+            atualizacaoFilaPendente.put(time, new AtomicBoolean());
+        }
+
+        // Uma única thread consumidora preserva a ordem das notificações
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidade),
+                Thread.ofVirtual().name("notificacao-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("flowpay.notificacao.fila.tamanho", executor, e -> e.getQueue().size())
+                .description("Notificações aguardando publicação")
+                .register(meterRegistry);
+        this.latencia = Timer.builder("flowpay.notificacao.latencia")
+                .description("Tempo entre o evento e o fim da publicação da notificação")
+                .register(meterRegistry);
+        this.mescladas = Counter.builder("flowpay.notificacao.mescladas")
+                .description("Atualizações de fila mescladas com outra ainda pendente")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(TIMEOUT_ENCERRAMENTO_MS, TimeUnit.MILLISECONDS)) {
+            log.warn("{} notificação(ões) pendente(s) descartada(s) no encerramento",
+                    executor.shutdownNow().size());
+        }
+    }
+
+    @Override
+    public void notificarNovoAtendimento(Atendimento atendimento) {
+        if (notificacao.semAssinantesAtribuicao(List.of(atendimento))) {
+            return;
+        }
+
+        // Cópia: o objeto original continua sendo alterado pelo distribuidor
+        Atendimento copia = copiar(atendimento);
+        enviar("novo-atendimento", () -> notificacao.notificarNovoAtendimento(copia));
+    }
+
+    @Override
+    public void notificarAtendimentosDistribuidos(Time time, List<Atendimento> atendimentos) {
+        if (atendimentos.isEmpty() || notificacao.semAssinantesAtribuicao(atendimentos)) {
+            return;
+        }
+
+        List<Atendimento> copias = new ArrayList<>(atendimentos.size());
+        atendimentos.forEach(a -> copias.add(copiar(a)));
+        enviar("atendimentos-distribuidos", () -> notificacao.notificarAtendimentosDistribuidos(time, copias));
+    }
+
+    @Override
+    public void notificarAtualizacaoFila(Time time) {
+        if (notificacao.semAssinantesFila(time)) {
+            return;
+        }
+
+        AtomicBoolean pendente = atualizacaoFilaPendente.get(time);
+
+        // A mensagem lê o tamanho da fila na publicação, então uma pendente já cobre esta
+        if (!pendente.compareAndSet(false, true)) {
+            mescladas.increment();
+            return;
+        }
+
+        boolean aceita = enviar("atualizacao-fila", () -> {
+            pendente.set(false);
+            notificacao.notificarAtualizacaoFila(time);
+        });
+
+        if (!aceita) {
+            pendente.set(false);
+        }
+    }
+
+    @Override
+    public void notificarAtendimentoFinalizado(Atendimento atendimento) {
+        if (notificacao.semAssinantes(NotificacaoServiceImpl.TOPICO_ATENDIMENTOS)) {
+            return;
+        }
+
+        Atendimento copia = copiar(atendimento);
+        enviar("atendimento-finalizado", () -> notificacao.notificarAtendimentoFinalizado(copia));
+    }
+
+    @Override
+    public void notificarNovoAtendente(Atendente atendente) {
+        if (notificacao.semAssinantes(NotificacaoServiceImpl.topicoAtendentes(atendente.getTime()),
+                NotificacaoServiceImpl.TOPICO_ATENDENTES)) {
+            return;
+        }
+
+        Atendente copia = Atendente.builder()
+                .id(atendente.getId())
+                .nome(atendente.getNome())
+                .time(atendente.getTime())
+                .atendimentosAtivos(atendente.getAtendimentosAtivos())
+                .build();
+        enviar("novo-atendente", () -> notificacao.notificarNovoAtendente(copia));
+    }
+
+    private boolean enviar(String tipo, Runnable publicacao) {
+        long inicio = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    publicacao.run();
+                } catch (Exception e) {
+                    log.error("[NOTIFICAÇÃO WS] Erro ao publicar notificação {}", tipo, e);
+                } finally {
+                    latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("flowpay.notificacao.descartadas", "tipo", tipo).increment();
+            log.warn("[NOTIFICAÇÃO WS] Fila de notificações cheia. Notificação {} descartada", tipo);
+            return false;
+        }
+    }
+
+    private Atendimento copiar(Atendimento atendimento) {
+        return Atendimento.builder()
+                .id(atendimento.getId())
+                .time(atendimento.getTime())
+                .atendenteId(atendimento.getAtendenteId())
+                .assunto(atendimento.getAssunto())
+                .nomeCliente(atendimento.getNomeCliente())
+                .status(atendimento.getStatus())
+                .dataHoraCriacao(atendimento.getDataHoraCriacao())
+                .dataHoraAtendimento(atendimento.getDataHoraAtendimento())
+                .dataHoraFinalizacao(atendimento.getDataHoraFinalizacao())
+                .build();
+    }
+}
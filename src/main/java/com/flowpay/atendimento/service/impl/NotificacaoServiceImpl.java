@@ -3,43 +3,80 @@ package com.flowpay.atendimento.service.impl;
 import com.flowpay.atendimento.dto.websocket.*;
 import com.flowpay.atendimento.model.Atendimento;
 import com.flowpay.atendimento.model.Atendente;
-import com.flowpay.atendimento.model.StatusAtendimento;
 import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendenteService;
-import com.flowpay.atendimento.service.AtendimentoService;
 import com.flowpay.atendimento.service.FilaService;
 import com.flowpay.atendimento.service.NotificacaoService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import com.flowpay.atendimento.service.impl.redis.RelayClusterRedis;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 public class NotificacaoServiceImpl implements NotificacaoService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    static final String TOPICO_ATENDIMENTOS = "/topic/atendimentos";
+    static final String TOPICO_FILAS = "/topic/filas";
+    static final String TOPICO_ATENDENTES = "/topic/atendentes";
+    // Fila privada do atendente, assinada como /user/queue/atendimentos
+    static final String FILA_ATENDENTE = "/queue/atendimentos";
+
+    private final PublicadorMensagens publicadorMensagens;
+    private final RegistroAssinaturas registroAssinaturas;
+    private final TransmissorSse transmissorSse;
     private final AtendenteService atendenteService;
-    private final AtendimentoService atendimentoService;
     private final FilaService filaService;
+    private final RegistroMetricas registroMetricas;
+
+    // Presente apenas com o profile redis: repassa os eventos às sessões das outras instâncias
+    @Autowired(required = false)
+    private RelayClusterRedis relayCluster;
 
     public NotificacaoServiceImpl(
-            SimpMessagingTemplate messagingTemplate,
+            PublicadorMensagens publicadorMensagens,
+            RegistroAssinaturas registroAssinaturas,
+            TransmissorSse transmissorSse,
             AtendenteService atendenteService,
-            @Lazy AtendimentoService atendimentoService,
-            FilaService filaService) {
-        this.messagingTemplate = messagingTemplate;
+            FilaService filaService,
+            RegistroMetricas registroMetricas) {
+        this.publicadorMensagens = publicadorMensagens;
+        this.registroAssinaturas = registroAssinaturas;
+        this.transmissorSse = transmissorSse;
         this.atendenteService = atendenteService;
-        this.atendimentoService = atendimentoService;
         this.filaService = filaService;
+        this.registroMetricas = registroMetricas;
+    }
+
+    static String topicoFila(Time time) {
+        return "/topic/fila/" + time.name();
+    }
+
+    static String topicoAtendentes(Time time) {
+        return TOPICO_ATENDENTES + "/" + time.name();
+    }
+
+    static String filaAtendente(Long atendenteId) {
+        return atendenteId != null ? RegistroAssinaturas.destinoUsuario(atendenteId.toString(), FILA_ATENDENTE) : null;
     }
 
     @Override
     public void notificarNovoAtendimento(Atendimento atendimento) {
+        // Supervisores pelo tópico agregado; o atendente somente pela sua fila privada
+        String[] destinos = registroAssinaturas.assinados(
+                TOPICO_ATENDIMENTOS, filaAtendente(atendimento.getAtendenteId()));
+
+        if (destinos.length == 0) {
+            return;
+        }
+
         log.info("[NOTIFICAÇÃO WS] Novo atendimento: ID={}, Cliente={}, Atendente={}",
                 atendimento.getId(),
                 atendimento.getNomeCliente(),
@@ -69,19 +106,91 @@ public class NotificacaoServiceImpl implements NotificacaoService {
                 .mensagem("Novo atendimento em andamento")
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/atendimentos", mensagem);
+        publicar(mensagem, destinos);
+    }
+
+    @Override
+    public void notificarAtendimentosDistribuidos(Time time, List<Atendimento> atendimentos) {
+        if (atendimentos.isEmpty()) {
+            return;
+        }
+
+        if (semAssinantesAtribuicao(atendimentos)) {
+            return;
+        }
+
+        if (atendimentos.size() == 1) {
+            notificarNovoAtendimento(atendimentos.get(0));
+            return;
+        }
+
+        log.info("[NOTIFICAÇÃO WS] {} atendimentos distribuídos em lote: Time={}", atendimentos.size(), time);
+
+        // Um mesmo atendente pode receber vários itens do lote: busca cada nome uma única vez
+        Map<Long, String> nomesAtendentes = new HashMap<>();
+        List<NovoAtendimentoMessage> itens = new ArrayList<>(atendimentos.size());
+
+        for (Atendimento atendimento : atendimentos) {
+            String nomeAtendente = null;
+
+            if (atendimento.getAtendenteId() != null) {
+                nomeAtendente = nomesAtendentes.computeIfAbsent(atendimento.getAtendenteId(),
+                        id -> atendenteService.buscarPorId(id)
+                                .map(Atendente::getNome)
+                                .orElse("Desconhecido"));
+            }
+
+            NovoAtendimentoMessage item = NovoAtendimentoMessage.builder()
+                    .atendimentoId(atendimento.getId())
+                    .nomeCliente(atendimento.getNomeCliente())
+                    .assunto(atendimento.getAssunto())
+                    .time(atendimento.getTime())
+                    .atendenteId(atendimento.getAtendenteId())
+                    .nomeAtendente(nomeAtendente)
+                    .build();
+            itens.add(item);
+
+            // Cada atendente recebe só a própria atribuição, como um NOVO_ATENDIMENTO
+            String filaAtendente = filaAtendente(atendimento.getAtendenteId());
+            if (registroAssinaturas.temAssinantes(filaAtendente)) {
+                publicar(WebSocketMessage.builder()
+                        .tipo(WebSocketMessage.TipoMensagem.NOVO_ATENDIMENTO)
+                        .timestamp(LocalDateTime.now())
+                        .dados(item)
+                        .mensagem("Novo atendimento em andamento")
+                        .build(), filaAtendente);
+            }
+        }
+
+        if (!registroAssinaturas.temAssinantes(TOPICO_ATENDIMENTOS)) {
+            return;
+        }
+
+        AtendimentosDistribuidosMessage dados = AtendimentosDistribuidosMessage.builder()
+                .time(time)
+                .tamanhoFila(filaService.tamanhoFila(time))
+                .atendimentos(itens)
+                .build();
+
+        WebSocketMessage mensagem = WebSocketMessage.builder()
+                .tipo(WebSocketMessage.TipoMensagem.ATENDIMENTOS_DISTRIBUIDOS)
+                .timestamp(LocalDateTime.now())
+                .dados(dados)
+                .mensagem(atendimentos.size() + " atendimentos da fila do time " + time + " distribuídos")
+                .build();
 
-        notificarMetricasAtualizadas();
+        publicar(mensagem, TOPICO_ATENDIMENTOS);
     }
 
     @Override
     public void notificarAtualizacaoFila(Time time) {
+        if (semAssinantesFila(time)) {
+            return;
+        }
+
         log.info("[NOTIFICAÇÃO WS] Fila atualizada: Time={}", time);
 
-        int ativos = (int) atendimentoService.listarPorTime(time)
-                .stream()
-                .filter(a -> a.getStatus() == StatusAtendimento.EM_ATENDIMENTO)
-                .count();
+        int ativos = registroMetricas.contagem(time).atendimentosAtivos();
 
         FilaAtualizadaMessage dados = FilaAtualizadaMessage.builder()
                 .time(time)
@@ -96,14 +205,22 @@ public class NotificacaoServiceImpl implements NotificacaoService {
                 .mensagem("Fila do time " + time + " foi atualizada")
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/fila/" + time.name(), mensagem);
-        messagingTemplate.convertAndSend("/topic/filas", mensagem);
+        // Serializada uma vez para os tópicos e o SSE; reaproveitada enquanto a fila não mudar
+        String[] destinos = registroAssinaturas.assinados(topicoFila(time), TOPICO_FILAS);
+        byte[] json = publicadorMensagens.publicarReaproveitando("fila:" + time.name(), mensagem, destinos);
+        relayar(json, destinos);
 
-        notificarMetricasAtualizadas();
+        if (transmissorSse.temClientes(TransmissorSse.TipoEvento.FILA)) {
+            transmissorSse.publicar(TransmissorSse.TipoEvento.FILA, json);
+        }
     }
 
     @Override
     public void notificarAtendimentoFinalizado(Atendimento atendimento) {
+        if (semAssinantes(TOPICO_ATENDIMENTOS)) {
+            return;
+        }
+
         log.info("[NOTIFICAÇÃO WS] Atendimento finalizado: ID={}, Cliente={}",
                 atendimento.getId(),
                 atendimento.getNomeCliente());
@@ -115,13 +232,15 @@ public class NotificacaoServiceImpl implements NotificacaoService {
                 .mensagem("Atendimento " + atendimento.getId() + " foi finalizado")
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/atendimentos", mensagem);
-
-        notificarMetricasAtualizadas();
+        publicar(mensagem, TOPICO_ATENDIMENTOS);
     }
 
     @Override
     public void notificarNovoAtendente(Atendente atendente) {
+        if (semAssinantes(topicoAtendentes(atendente.getTime()), TOPICO_ATENDENTES)) {
+            return;
+        }
+
         log.info("[NOTIFICAÇÃO WS] Novo atendente cadastrado: ID={}, Nome={}, Time={}",
                 atendente.getId(),
                 atendente.getNome(),
@@ -141,43 +260,50 @@ public class NotificacaoServiceImpl implements NotificacaoService {
                 .mensagem("Novo atendente cadastrado no time " + atendente.getTime())
                 .build();
 
-        messagingTemplate.convertAndSend("/topic/atendentes/" + atendente.getTime().name(), mensagem);
-        messagingTemplate.convertAndSend("/topic/atendentes", mensagem);
+        publicar(mensagem, topicoAtendentes(atendente.getTime()), TOPICO_ATENDENTES);
+    }
 
-        notificarMetricasAtualizadas();
+    /**
+     * Sem sessões assinando os destinos, a mensagem não é montada (nem consultas ao storage
+     * para preenchê-la).
+     */
+    boolean semAssinantes(String... destinos) {
+        return !registroAssinaturas.temAssinantes(destinos);
     }
 
-    private void notificarMetricasAtualizadas() {
-        int totalAtivos = atendimentoService.listarPorStatus(StatusAtendimento.EM_ATENDIMENTO)
-                .size();
-
-        int totalFila = Arrays.stream(Time.values())
-                .mapToInt(filaService::tamanhoFila)
-                .sum();
-
-        List<Atendente> todosAtendentes = atendenteService.listarTodos();
-        int totalAtendentes = todosAtendentes.size();
-        int disponiveis = (int) todosAtendentes.stream()
-                .filter(Atendente::isDisponivel)
-                .count();
-
-        MetricasAtualizadasMessage dados = MetricasAtualizadasMessage.builder()
-                .totalAtendimentosAtivos(totalAtivos)
-                .totalNaFila(totalFila)
-                .totalAtendentes(totalAtendentes)
-                .atendentesDisponiveis(disponiveis)
-                .build();
+    /**
+     * semAssinantes para atualizações de fila, que também vão para os clientes SSE.
+     */
+    boolean semAssinantesFila(Time time) {
+        return !transmissorSse.temClientes(TransmissorSse.TipoEvento.FILA)
+                && semAssinantes(topicoFila(time), TOPICO_FILAS);
+    }
 
-        WebSocketMessage mensagem = WebSocketMessage.builder()
-                .tipo(WebSocketMessage.TipoMensagem.METRICAS_ATUALIZADAS)
-                .timestamp(LocalDateTime.now())
-                .dados(dados)
-                .mensagem("Métricas do sistema atualizadas")
-                .build();
+    /**
+     * semAssinantes para atribuições: o tópico agregado e as filas privadas dos atendentes envolvidos.
+     */
+    boolean semAssinantesAtribuicao(List<Atendimento> atendimentos) {
+        if (registroAssinaturas.temAssinantes(TOPICO_ATENDIMENTOS)) {
+            return false;
+        }
+        for (Atendimento atendimento : atendimentos) {
+            if (registroAssinaturas.temAssinantes(filaAtendente(atendimento.getAtendenteId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        messagingTemplate.convertAndSend("/topic/metricas", mensagem);
+    /**
+     * Entrega às sessões locais e repassa o mesmo JSON às outras instâncias, se houver relay.
+     */
+    private void publicar(Object mensagem, String... destinos) {
+        relayar(publicadorMensagens.publicar(mensagem, destinos), destinos);
+    }
 
-        log.debug("[NOTIFICAÇÃO WS] Métricas atualizadas: ativos={}, fila={}, atendentes={}/{}",
-                totalAtivos, totalFila, disponiveis, totalAtendentes);
+    private void relayar(byte[] json, String... destinos) {
+        if (relayCluster != null) {
+            relayCluster.publicar(json, destinos);
+        }
     }
 }
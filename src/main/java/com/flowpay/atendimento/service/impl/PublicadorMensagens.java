@@ -0,0 +1,109 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.dto.websocket.WebSocketMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Envio de mensagens WebSocket serializadas uma única vez.
+ *
+ * convertAndSend executa o Jackson a cada destino. Aqui a mensagem é convertida
+ * para JSON uma vez, com o mesmo JsonMapper usado pelo conversor do STOMP, e o
+ * mesmo array de bytes é enviado a todos os destinos.
+ *
+ * Para mensagens cujo conteúdo se repete (ex.: fila de um time com o mesmo tamanho),
+ * publicarReaproveitando guarda a última codificação por chave e a reutiliza
+ * enquanto tipo, dados e texto forem iguais. Nesse caso o timestamp enviado é o da
+ * primeira publicação daquele estado.
+ */
+@Component
+@Slf4j
+public class PublicadorMensagens {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final JsonMapper jsonMapper;
+    private final Counter reaproveitadas;
+
+    private final Map<String, Codificada> ultimas = new ConcurrentHashMap<>();
+
+    public PublicadorMensagens(
+            SimpMessagingTemplate messagingTemplate,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.jsonMapper = jsonMapper;
+        this.reaproveitadas = Counter.builder("flowpay.notificacao.codificacao.reaproveitadas")
+                .description("Mensagens enviadas com a codificação JSON de uma publicação anterior")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serializa a mensagem uma vez e a envia a todos os destinos. Retorna o JSON enviado.
+     */
+    public byte[] publicar(Object mensagem, String... destinos) {
+        byte[] json = codificar(mensagem);
+        enviar(json, destinos);
+        return json;
+    }
+
+    /**
+     * Como publicar, mas reutiliza a codificação anterior da mesma chave se o conteúdo não mudou.
+     */
+    public byte[] publicarReaproveitando(String chave, WebSocketMessage mensagem, String... destinos) {
+        Codificada anterior = ultimas.get(chave);
+
+        if (anterior != null && anterior.mesmoConteudo(mensagem)) {
+            reaproveitadas.increment();
+            enviar(anterior.json(), destinos);
+            return anterior.json();
+        }
+
+        byte[] json = codificar(mensagem);
+        ultimas.put(chave, new Codificada(mensagem.getTipo(), mensagem.getDados(), mensagem.getMensagem(), json));
+        enviar(json, destinos);
+        return json;
+    }
+
+    byte[] codificar(Object mensagem) {
+        return jsonMapper.writeValueAsBytes(mensagem);
+    }
+
+    /**
+     * Envia um JSON já codificado às sessões desta instância.
+     */
+    public void enviar(byte[] json, String... destinos) {
+        for (String destino : destinos) {
+            // Cabeçalhos próprios por destino; o payload é o mesmo array
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setLeaveMutable(true);
+
+            Message<byte[]> mensagem = MessageBuilder.createMessage(json, headers.getMessageHeaders());
+            messagingTemplate.send(destino, mensagem);
+        }
+
+        log.trace("[NOTIFICAÇÃO WS] {} byte(s) enviados para {} destino(s)", json.length, destinos.length);
+    }
+
+    private record Codificada(WebSocketMessage.TipoMensagem tipo, Object dados, String mensagem, byte[] json) {
+
+        boolean mesmoConteudo(WebSocketMessage outra) {
+            return tipo == outra.getTipo()
+                    && Objects.equals(dados, outra.getDados())
+                    && Objects.equals(mensagem, outra.getMensagem());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.dto.websocket.MetricasAtualizadasMessage;
+import com.flowpay.atendimento.dto.websocket.WebSocketMessage;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica METRICAS_ATUALIZADAS em /topic/metricas (e no stream SSE) no máximo uma vez por intervalo.
+ *
+ * Um tick agendado lê as contagens do RegistroMetricas uma vez e envia um único snapshot
+ * quando elas diferem do último publicado. Rajadas de eventos dentro do mesmo intervalo
+ * resultam em uma só mensagem. Como a comparação é feita sobre os contadores, e não sobre
+ * eventos locais, alterações feitas por outras instâncias (profile redis) também são publicadas.
+ *
+ * No mesmo tick, o FluxoDashboard publica os deltas por time em /topic/dashboard/delta.
+ *
+ * O atraso de cada tick em relação ao horário previsto é exposto no timer
+ * flowpay.metricas.tick.atraso.
+ */
+@Component
+@Slf4j
+public class PublicadorMetricas {
+
+    static final String TOPICO_METRICAS = "/topic/metricas";
+
+    private final PublicadorMensagens publicadorMensagens;
+    private final RegistroMetricas registroMetricas;
+    private final RegistroAssinaturas registroAssinaturas;
+    private final TransmissorSse transmissorSse;
+    private final FluxoDashboard fluxoDashboard;
+    private final long intervaloNanos;
+    private final Timer atrasoTick;
+
+    // Acessados somente pela thread do agendador
+    private long proximoTickPrevisto;
+    private RegistroMetricas.Contagens ultimasPublicadas;
+
+    public PublicadorMetricas(
+            PublicadorMensagens publicadorMensagens,
+            RegistroMetricas registroMetricas,
+            RegistroAssinaturas registroAssinaturas,
+            TransmissorSse transmissorSse,
+            FluxoDashboard fluxoDashboard,
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.metricas.broadcast.intervalo-ms:250}") long intervaloMs) {
+        this.publicadorMensagens = publicadorMensagens;
+        this.registroMetricas = registroMetricas;
+        this.registroAssinaturas = registroAssinaturas;
+        this.transmissorSse = transmissorSse;
+        this.fluxoDashboard = fluxoDashboard;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        this.atrasoTick = Timer.builder("flowpay.metricas.tick.atraso")
+                .description("Atraso do tick de publicação de métricas em relação ao horário previsto")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${flowpay.metricas.broadcast.intervalo-ms:250}")
+    void tick() {
+        long agora = System.nanoTime();
+
+        if (proximoTickPrevisto != 0) {
+            atrasoTick.record(Math.max(0, agora - proximoTickPrevisto), TimeUnit.NANOSECONDS);
+        }
+        proximoTickPrevisto = agora + intervaloNanos;
+
+        // Uma leitura por tick, compartilhada com o fluxo de deltas
+        RegistroMetricas.Contagens contagens = registroMetricas.contagens();
+
+        // Sem assinantes nada é publicado; a diferença é publicada no primeiro tick após uma assinatura
+        boolean temDestinatarios = registroAssinaturas.temAssinantes(TOPICO_METRICAS)
+                || transmissorSse.temClientes(TransmissorSse.TipoEvento.METRICAS);
+        if (temDestinatarios && !contagens.equals(ultimasPublicadas)) {
+            publicar(contagens);
+            ultimasPublicadas = contagens;
+        }
+
+        // Não envia nada sem alterações; cobre também a carga inicial dos contadores
+        fluxoDashboard.publicarAlteracoes(contagens);
+    }
+
+    private void publicar(RegistroMetricas.Contagens contagens) {
+        MetricasAtualizadasMessage dados = MetricasAtualizadasMessage.builder()
+                .totalAtendimentosAtivos(contagens.totalAtendimentosAtivos())
+                .totalNaFila(contagens.totalNaFila())
+                .totalAtendentes(contagens.totalAtendentes())
+                .atendentesDisponiveis(contagens.atendentesDisponiveis())
+                .build();
+
+        WebSocketMessage mensagem = WebSocketMessage.builder()
+                .tipo(WebSocketMessage.TipoMensagem.METRICAS_ATUALIZADAS)
+                .timestamp(LocalDateTime.now())
+                .dados(dados)
+                .mensagem("Métricas do sistema atualizadas")
+                .build();
+
+        // Alterações que se compensam entre times repetem os totais do snapshot anterior
+        byte[] json = publicadorMensagens.publicarReaproveitando("metricas", mensagem,
+                registroAssinaturas.assinados(TOPICO_METRICAS));
+
+        if (transmissorSse.temClientes(TransmissorSse.TipoEvento.METRICAS)) {
+            transmissorSse.publicar(TransmissorSse.TipoEvento.METRICAS, json);
+        }
+
+        log.debug("[NOTIFICAÇÃO WS] Métricas atualizadas: ativos={}, fila={}, atendentes={}/{}",
+                dados.getTotalAtendimentosAtivos(), dados.getTotalNaFila(),
+                dados.getAtendentesDisponiveis(), dados.getTotalAtendentes());
+    }
+}
@@ -0,0 +1,181 @@
+package com.flowpay.atendimento.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assinaturas STOMP ativas por destino.
+ *
+ * Mantido pelos eventos de SUBSCRIBE, UNSUBSCRIBE e desconexão do broker configurado
+ * no WebSocketConfig. As notificações consultam temAssinantes antes de montar a
+ * mensagem: a maioria dos tópicos por time fica sem assinantes na maior parte do
+ * tempo, e nesse caso não há consulta ao storage nem serialização.
+ *
+ * Assinaturas de destinos de usuário (/user/queue/...) são registradas já resolvidas
+ * para o usuário da sessão, no mesmo formato usado no envio: /user/{usuario}/queue/...
+ *
+ * Com o relay entre instâncias (profile redis), os destinos assinados nas outras
+ * instâncias também contam: atualizarRemotos recebe periodicamente essa lista.
+ *
+ * Os eventos são raros e são tratados sob o monitor desta instância; a consulta
+ * temAssinantes é uma leitura sem bloqueio.
+ */
+@Component
+@Slf4j
+public class RegistroAssinaturas {
+
+    static final String PREFIXO_USUARIO = "/user/";
+
+    private final Map<String, AtomicInteger> assinantesPorDestino = new ConcurrentHashMap<>();
+
+    // sessionId -> (subscriptionId -> destino); protegido pelo monitor desta instância
+    private final Map<String, Map<String, String>> assinaturasPorSessao = new HashMap<>();
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    // Destinos com assinantes em outras instâncias, substituído por inteiro a cada sincronização
+    private volatile Set<String> assinadosRemotos = Set.of();
+
+    public RegistroAssinaturas(MeterRegistry meterRegistry) {
+        Gauge.builder("flowpay.websocket.assinaturas", total, AtomicInteger::get)
+                .description("Assinaturas STOMP ativas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Destino privado de um usuário, no formato aceito pelo SimpMessagingTemplate (ex.: /user/12/queue/atendimentos).
+     */
+    public static String destinoUsuario(String usuario, String destino) {
+        return PREFIXO_USUARIO + usuario + destino;
+    }
+
+    /**
+     * true se ao menos um dos destinos tem uma sessão assinando. Destinos null são ignorados.
+     */
+    public boolean temAssinantes(String... destinos) {
+        for (String destino : destinos) {
+            if (temAssinante(destino)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Somente os destinos que têm ao menos uma sessão assinando.
+     */
+    public String[] assinados(String... destinos) {
+        List<String> assinados = new ArrayList<>(destinos.length);
+        for (String destino : destinos) {
+            if (temAssinante(destino)) {
+                assinados.add(destino);
+            }
+        }
+        return assinados.toArray(String[]::new);
+    }
+
+    /**
+     * true se o destino tem assinantes em outra instância.
+     */
+    public boolean temAssinanteRemoto(String destino) {
+        return destino != null && assinadosRemotos.contains(destino);
+    }
+
+    /**
+     * Destinos com ao menos uma sessão assinando nesta instância.
+     */
+    public Set<String> destinosLocais() {
+        return Set.copyOf(assinantesPorDestino.keySet());
+    }
+
+    public void atualizarRemotos(Set<String> destinos) {
+        this.assinadosRemotos = Set.copyOf(destinos);
+    }
+
+    private boolean temAssinante(String destino) {
+        if (destino == null) {
+            return false;
+        }
+        AtomicInteger assinantes = assinantesPorDestino.get(destino);
+        return (assinantes != null && assinantes.get() > 0) || assinadosRemotos.contains(destino);
+    }
+
+    @EventListener
+    public synchronized void assinou(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String destino = headers.getDestination();
+
+        if (headers.getSessionId() == null || headers.getSubscriptionId() == null || destino == null) {
+            return;
+        }
+
+        if (destino.startsWith(PREFIXO_USUARIO) && event.getUser() != null) {
+            destino = destinoUsuario(event.getUser().getName(), destino.substring(PREFIXO_USUARIO.length() - 1));
+        }
+
+        String anterior = assinaturasPorSessao
+                .computeIfAbsent(headers.getSessionId(), id -> new HashMap<>())
+                .put(headers.getSubscriptionId(), destino);
+
+        // Mesmo subscriptionId reutilizado pelo cliente: substitui a assinatura anterior
+        if (anterior != null) {
+            decrementar(anterior);
+        }
+        assinantesPorDestino.computeIfAbsent(destino, d -> new AtomicInteger()).incrementAndGet();
+        total.incrementAndGet();
+
+        log.debug("[WS] Sessão {} assinou {}", headers.getSessionId(), destino);
+    }
+
+    @EventListener
+    public synchronized void cancelou(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> assinaturas = assinaturasPorSessao.get(headers.getSessionId());
+
+        if (assinaturas == null) {
+            return;
+        }
+
+        String destino = assinaturas.remove(headers.getSubscriptionId());
+        if (destino != null) {
+            decrementar(destino);
+        }
+        if (assinaturas.isEmpty()) {
+            assinaturasPorSessao.remove(headers.getSessionId());
+        }
+    }
+
+    @EventListener
+    public synchronized void desconectou(SessionDisconnectEvent event) {
+        Map<String, String> assinaturas = assinaturasPorSessao.remove(event.getSessionId());
+
+        if (assinaturas != null) {
+            assinaturas.values().forEach(this::decrementar);
+            log.debug("[WS] Sessão {} desconectada: {} assinatura(s) removida(s)",
+                    event.getSessionId(), assinaturas.size());
+        }
+    }
+
+    private void decrementar(String destino) {
+        AtomicInteger assinantes = assinantesPorDestino.get(destino);
+        if (assinantes != null && assinantes.decrementAndGet() <= 0) {
+            assinantesPorDestino.remove(destino);
+        }
+        total.decrementAndGet();
+    }
+}
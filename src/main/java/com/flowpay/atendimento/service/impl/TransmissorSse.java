@@ -0,0 +1,298 @@
+package com.flowpay.atendimento.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transmissão de eventos do dashboard por Server-Sent Events (GET /api/dashboard/stream).
+ *
+ * Cada tipo de evento tem um único buffer circular compartilhado por todos os clientes,
+ * com o JSON já codificado (o mesmo enviado pelo WebSocket). Publicar só grava no buffer
+ * e acorda os leitores: o produtor nunca espera por um cliente.
+ *
+ * Cada cliente tem uma virtual thread que lê o buffer a partir do próprio cursor e
+ * escreve no SseEmitter. Um cliente lento demais, que o buffer ultrapassou, é desconectado
+ * em vez de segurar o produtor; ele pode reconectar e recebe o último evento de cada tipo.
+ */
+@Component
+@Slf4j
+public class TransmissorSse {
+
+    public enum TipoEvento {
+        METRICAS("metricas"),
+        FILA("fila");
+
+        private final String nome;
+
+        TipoEvento(String nome) {
+            this.nome = nome;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+    }
+
+    private final int capacidade;
+    private final long heartbeatMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition novidade = lock.newCondition();
+
+    // Buffers protegidos pelo lock
+    private final Map<TipoEvento, BufferCircular> buffers = new EnumMap<>(TipoEvento.class);
+    private final Map<TipoEvento, AtomicInteger> clientesPorTipo = new EnumMap<>(TipoEvento.class);
+    private volatile boolean encerrado;
+
+    private final AtomicInteger clientes = new AtomicInteger();
+    private final Counter desconectadosPorAtraso;
+
+    public TransmissorSse(
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.sse.buffer.capacidade:256}") int capacidade,
+            @Value("${flowpay.sse.heartbeat-ms:15000}") long heartbeatMs) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("flowpay.sse.buffer.capacidade deve ser maior que zero");
+        }
+        this.capacidade = capacidade;
+        this.heartbeatMs = heartbeatMs;
+
+        for (TipoEvento tipo : TipoEvento.values()) {
+            buffers.put(tipo, new BufferCircular(capacidade));
+            clientesPorTipo.put(tipo, new AtomicInteger());
+        }
+
+        Gauge.builder("flowpay.sse.clientes", clientes, AtomicInteger::get)
+                .description("Clientes conectados ao stream SSE do dashboard")
+                .register(meterRegistry);
+        this.desconectadosPorAtraso = Counter.builder("flowpay.sse.desconectados")
+                .description("Clientes SSE desconectados por não acompanharem o buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * true se algum cliente recebe eventos do tipo; sem clientes a mensagem nem precisa ser montada.
+     */
+    public boolean temClientes(TipoEvento tipo) {
+        return clientesPorTipo.get(tipo).get() > 0;
+    }
+
+    /**
+     * Grava o evento já codificado no buffer do tipo e acorda os clientes. Não bloqueia em I/O.
+     */
+    public void publicar(TipoEvento tipo, byte[] json) {
+        lock.lock();
+        try {
+            buffers.get(tipo).adicionar(json);
+            novidade.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra um cliente para os tipos informados e inicia sua thread de envio.
+     */
+    public SseEmitter conectar(Set<TipoEvento> tipos) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Cliente cliente = new Cliente(emitter, List.copyOf(tipos));
+
+        emitter.onCompletion(cliente::encerrar);
+        emitter.onTimeout(cliente::encerrar);
+        emitter.onError(e -> cliente.encerrar());
+
+        clientes.incrementAndGet();
+        tipos.forEach(tipo -> clientesPorTipo.get(tipo).incrementAndGet());
+
+        Thread.ofVirtual().name("sse-cliente").start(cliente::transmitir);
+
+        log.info("[SSE] Cliente conectado: tipos={}, clientes={}", tipos, clientes.get());
+        return emitter;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        lock.lock();
+        try {
+            encerrado = true;
+            novidade.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Cliente {
+
+        private final SseEmitter emitter;
+        private final List<TipoEvento> tipos;
+        private final long[] cursores;
+
+        private final AtomicBoolean ativo = new AtomicBoolean(true);
+
+        Cliente(SseEmitter emitter, List<TipoEvento> tipos) {
+            this.emitter = emitter;
+            this.tipos = tipos;
+            this.cursores = new long[tipos.size()];
+        }
+
+        void transmitir() {
+            try {
+                iniciarCursores();
+
+                while (ativo.get()) {
+                    List<Evento> pendentes = aguardarEventos();
+
+                    if (pendentes == null) {
+                        desconectadosPorAtraso.increment();
+                        log.warn("[SSE] Cliente não acompanhou o buffer ({} eventos) e foi desconectado", capacidade);
+                        emitter.complete();
+                        break;
+                    }
+
+                    if (encerrado) {
+                        emitter.complete();
+                        break;
+                    }
+
+                    if (pendentes.isEmpty()) {
+                        if (ativo.get()) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                        continue;
+                    }
+
+                    // Escrita fora do lock: um cliente lento atrasa apenas a própria thread
+                    for (Evento evento : pendentes) {
+                        emitter.send(SseEmitter.event()
+                                .name(evento.tipo().getNome())
+                                .id(Long.toString(evento.sequencia()))
+                                .data(evento.json(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("[SSE] Cliente desconectado: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                encerrar();
+            }
+        }
+
+        /**
+         * Começa do último evento de cada tipo, para que o painel tenha dados de imediato.
+         */
+        private void iniciarCursores() {
+            lock.lock();
+            try {
+                for (int i = 0; i < tipos.size(); i++) {
+                    cursores[i] = Math.max(0, buffers.get(tipos.get(i)).proxima - 1);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Eventos novos dos tipos assinados; lista vazia se nada chegou até o heartbeat e
+         * null se o buffer já sobrescreveu eventos que o cliente não leu.
+         */
+        private List<Evento> aguardarEventos() throws InterruptedException {
+            lock.lock();
+            try {
+                long restante = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+                while (ativo.get() && !encerrado && !temNovidade() && restante > 0) {
+                    restante = novidade.awaitNanos(restante);
+                }
+
+                if (encerrado || !ativo.get()) {
+                    return List.of();
+                }
+
+                List<Evento> eventos = new ArrayList<>();
+                for (int i = 0; i < tipos.size(); i++) {
+                    BufferCircular buffer = buffers.get(tipos.get(i));
+
+                    if (cursores[i] < buffer.proxima - capacidade) {
+                        return null;
+                    }
+                    for (; cursores[i] < buffer.proxima; cursores[i]++) {
+                        eventos.add(new Evento(tipos.get(i), cursores[i], buffer.ler(cursores[i])));
+                    }
+                }
+                return eventos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean temNovidade() {
+            for (int i = 0; i < tipos.size(); i++) {
+                if (cursores[i] < buffers.get(tipos.get(i)).proxima) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void encerrar() {
+            if (!ativo.compareAndSet(true, false)) {
+                return;
+            }
+
+            clientes.decrementAndGet();
+            tipos.forEach(tipo -> clientesPorTipo.get(tipo).decrementAndGet());
+
+            // Acorda a thread do cliente caso esteja aguardando eventos
+            lock.lock();
+            try {
+                novidade.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private record Evento(TipoEvento tipo, long sequencia, byte[] json) {
+    }
+
+    /**
+     * Buffer circular de eventos codificados; a posição de cada evento é sua sequência módulo a capacidade.
+     */
+    private static final class BufferCircular {
+
+        private final byte[][] eventos;
+        private long proxima;
+
+        BufferCircular(int capacidade) {
+            this.eventos = new byte[capacidade][];
+        }
+
+        void adicionar(byte[] json) {
+            eventos[(int) (proxima % eventos.length)] = json;
+            proxima++;
+        }
+
+        byte[] ler(long sequencia) {
+            return eventos[(int) (sequencia % eventos.length)];
+        }
+    }
+}
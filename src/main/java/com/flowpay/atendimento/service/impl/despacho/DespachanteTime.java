@@ -0,0 +1,166 @@
+package com.flowpay.atendimento.service.impl.despacho;
+
+import com.flowpay.atendimento.model.Time;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Laço de eventos dedicado a um time (single-writer).
+ *
+ * Threads HTTP apenas publicam comandos no ring buffer; somente a thread do
+ * despachante altera fila e atendentes do time, preservando a ordem de chegada.
+ * A cada ciclo o laço drena tudo o que estiver pendente e coalesce pedidos
+ * consecutivos de processamento da fila em uma única execução. O lote coalescido é
+ * executado antes do próximo comando não coalescível, então um processamento de fila
+ * nunca passa à frente de um distribuir ou finalizar publicado depois dele.
+ *
+ * Após o encerramento, publicar falha com IllegalStateException; comandos que chegarem
+ * ao buffer depois da última drenagem têm o future concluído com a mesma exceção, para
+ * que nenhuma thread fique aguardando um comando que não será executado.
+ */
+@Slf4j
+final class DespachanteTime implements Runnable {
+
+    private static final long ESPERA_OCIOSA_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Time time;
+    private final RingBufferMpsc<Comando> comandos;
+    private final Thread thread;
+
+    private volatile boolean ativo = true;
+
+    // Marcado pelo laço ao sair, antes da drenagem final
+    private volatile boolean finalizado;
+
+    DespachanteTime(Time time, int capacidade) {
+        this.time = time;
+        this.comandos = new RingBufferMpsc<>(capacidade);
+        this.thread = Thread.ofPlatform()
+                .name("despacho-" + time.name())
+                .daemon(true)
+                .unstarted(this);
+    }
+
+    void iniciar() {
+        thread.start();
+        log.info("Despachante do time {} iniciado (capacidade: {})", time, comandos.capacidade());
+    }
+
+    void encerrar(long timeoutMillis) throws InterruptedException {
+        ativo = false;
+        LockSupport.unpark(thread);
+        thread.join(timeoutMillis);
+    }
+
+    boolean naThreadDoDespachante() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Publica um comando e retorna o future concluído quando ele for executado.
+     * Comandos coalescíveis pendentes no mesmo ciclo são executados uma única vez.
+     */
+    CompletableFuture<Void> publicar(Runnable acao, boolean coalescivel) {
+        if (!ativo) {
+            throw encerrado();
+        }
+
+        Comando comando = new Comando(acao, coalescivel, new CompletableFuture<>());
+
+        while (!comandos.oferecer(comando)) {
+            if (!ativo) {
+                throw encerrado();
+            }
+            // Buffer cheio: aguarda o consumidor liberar espaço (backpressure)
+            LockSupport.unpark(thread);
+            Thread.yield();
+        }
+
+        // O laço pode ter feito a drenagem final antes deste comando chegar ao buffer
+        if (finalizado) {
+            comando.conclusao().completeExceptionally(encerrado());
+        }
+
+        LockSupport.unpark(thread);
+        return comando.conclusao();
+    }
+
+    @Override
+    public void run() {
+        List<Comando> coalescidos = new ArrayList<>();
+
+        while (true) {
+            int executados = drenar(coalescidos);
+
+            if (executados == 0) {
+                if (!ativo) {
+                    break;
+                }
+                LockSupport.parkNanos(this, ESPERA_OCIOSA_NANOS);
+            }
+        }
+
+        finalizado = true;
+
+        // Publicados entre a última drenagem e a saída do laço
+        int descartados = 0;
+        Comando comando;
+        while ((comando = comandos.consumir()) != null) {
+            comando.conclusao().completeExceptionally(encerrado());
+            descartados++;
+        }
+
+        log.info("Despachante do time {} encerrado ({} comandos descartados)", time, descartados);
+    }
+
+    private int drenar(List<Comando> coalescidos) {
+        int executados = 0;
+        Comando comando;
+
+        while ((comando = comandos.consumir()) != null) {
+            if (comando.coalescivel()) {
+                coalescidos.add(comando);
+            } else {
+                executarCoalescidos(coalescidos);
+                executar(comando.acao(), List.of(comando));
+            }
+            executados++;
+        }
+
+        executarCoalescidos(coalescidos);
+        return executados;
+    }
+
+    private void executarCoalescidos(List<Comando> coalescidos) {
+        if (coalescidos.isEmpty()) {
+            return;
+        }
+        if (coalescidos.size() > 1) {
+            log.debug("Time {}: {} processamentos de fila coalescidos em um", time, coalescidos.size());
+        }
+        executar(coalescidos.get(0).acao(), coalescidos);
+        coalescidos.clear();
+    }
+
+    private void executar(Runnable acao, List<Comando> origem) {
+        try {
+            acao.run();
+            origem.forEach(c -> c.conclusao().complete(null));
+        } catch (Throwable e) {
+            log.error("Erro ao executar comando no despachante do time {}", time, e);
+            origem.forEach(c -> c.conclusao().completeExceptionally(e));
+        }
+    }
+
+    private IllegalStateException encerrado() {
+        return new IllegalStateException("Despachante do time " + time + " está encerrado");
+    }
+
+    private record Comando(Runnable acao, boolean coalescivel, CompletableFuture<Void> conclusao) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.flowpay.atendimento.service.impl.despacho;
+
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.DistribuidorService;
+import com.flowpay.atendimento.service.impl.DistribuidorServiceImpl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Distribuidor com um escritor único por time (modelo de atores).
+ *
+ * Cada time tem uma thread dedicada alimentada por um ring buffer MPSC.
+ * As threads HTTP apenas publicam comandos e aguardam a conclusão, mantendo o
+ * contrato síncrono do DistribuidorService. Como só a thread do time altera
+ * fila e atendentes daquele time, não há disputa entre requisições e a ordem
+ * FIFO é preservada.
+ *
+ * Ativado com flowpay.distribuicao.modo=por-time. A lógica de distribuição
+ * continua em DistribuidorServiceImpl; esta classe apenas serializa as chamadas.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "flowpay.distribuicao.modo", havingValue = "por-time")
+@Slf4j
+public class DistribuidorPorTimeService implements DistribuidorService {
+
+    private static final long TIMEOUT_ENCERRAMENTO_MS = 5_000;
+
+    private final DistribuidorServiceImpl distribuidor;
+    private final Map<Time, DespachanteTime> despachantes = new EnumMap<>(Time.class);
+
+    public DistribuidorPorTimeService(
+            DistribuidorServiceImpl distribuidor,
+            @Value("${flowpay.distribuicao.por-time.capacidade:1024}") int capacidade) {
+        this.distribuidor = distribuidor;
+
+        for (Time time : Time.values()) {
+            despachantes.put(time, new DespachanteTime(time, capacidade));
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        despachantes.values().forEach(DespachanteTime::iniciar);
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        for (DespachanteTime despachante : despachantes.values()) {
+            despachante.encerrar(TIMEOUT_ENCERRAMENTO_MS);
+        }
+    }
+
+    @Override
+    public void distribuir(Atendimento atendimento) {
+        if (atendimento == null || atendimento.getTime() == null) {
+            distribuidor.distribuir(atendimento);
+            return;
+        }
+
+        executar(atendimento.getTime(), () -> distribuidor.distribuir(atendimento), false);
+    }
+
+    @Override
+    public void finalizarAtendimento(Long atendimentoId) {
+        Time time = distribuidor.buscarAtendimentoAtivo(atendimentoId)
+                .map(Atendimento::getTime)
+                .orElse(null);
+
+        if (time == null) {
+            // Inexistente ou já finalizado: o distribuidor apenas registra o aviso
+            distribuidor.finalizarAtendimento(atendimentoId);
+            return;
+        }
+
+        executar(time, () -> distribuidor.finalizarAtendimento(atendimentoId), false);
+    }
+
+    @Override
+    public void processarFila(Time time) {
+        executar(time, () -> distribuidor.processarFila(time), true);
+    }
+
+    private void executar(Time time, Runnable acao, boolean coalescivel) {
+        DespachanteTime despachante = despachantes.get(time);
+
+        // Chamadas feitas de dentro do próprio laço executam direto, evitando deadlock
+        if (despachante.naThreadDoDespachante()) {
+            acao.run();
+            return;
+        }
+
+        CompletableFuture<Void> conclusao = despachante.publicar(acao, coalescivel);
+
+        try {
+            conclusao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.flowpay.atendimento.service.impl.despacho;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer limitado, sem locks, para múltiplos produtores e um único consumidor (MPSC).
+ *
+ * Cada posição guarda um número de sequência que indica se está livre para o produtor
+ * da volta atual ou pronta para o consumidor (algoritmo de D. Vyukov).
+ * Produtores disputam apenas a cauda via CAS; a cabeça pertence exclusivamente
+ * à thread consumidora e não precisa de sincronização.
+ */
+final class RingBufferMpsc<E> {
+
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicReferenceArray<E> elementos;
+    private final AtomicLongArray sequencias;
+    private final AtomicLong cauda = new AtomicLong();
+
+    // Acessada somente pela thread consumidora
+    private long cabeca;
+
+    RingBufferMpsc(int capacidadeMinima) {
+        if (capacidadeMinima < 2) {
+            throw new IllegalArgumentException("Capacidade do ring buffer deve ser ao menos 2");
+        }
+        this.capacidade = Integer.highestOneBit(capacidadeMinima - 1) << 1;
+        this.mascara = capacidade - 1;
+        this.elementos = new AtomicReferenceArray<>(capacidade);
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Publica um elemento. Pode ser chamado por qualquer thread.
+     * Retorna false se o buffer estiver cheio.
+     */
+    boolean oferecer(E elemento) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos.set(indice, elemento);
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                return false;
+            }
+            // diferenca > 0: outro produtor já ocupou a posição, tenta a próxima
+        }
+    }
+
+    /**
+     * Retira o próximo elemento, ou null se o buffer estiver vazio.
+     * Deve ser chamado apenas pela thread consumidora.
+     */
+    E consumir() {
+        int indice = (int) (cabeca & mascara);
+
+        if (sequencias.get(indice) != cabeca + 1) {
+            return null; // Vazio ou produtor ainda escrevendo nesta posição
+        }
+
+        E elemento = elementos.get(indice);
+        elementos.set(indice, null);
+        sequencias.set(indice, cabeca + capacidade);
+        cabeca++;
+        return elemento;
+    }
+
+    int capacidade() {
+        return capacidade;
+    }
+}
@@ -0,0 +1,70 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fila FIFO sem locks com contador de tamanho mantido a cada operação.
+ *
+ * O ConcurrentLinkedQueue percorre todos os nós em size() (O(n)). Aqui o tamanho
+ * é um AtomicInteger, então size() é O(1) mesmo com dezenas de milhares de itens.
+ * O contador é incrementado antes de publicar o elemento e decrementado só depois
+ * de um poll bem-sucedido, logo nunca fica negativo; sob concorrência pode
+ * contar momentaneamente um item que ainda não ficou visível.
+ */
+final class FilaContada<E> extends AbstractQueue<E> {
+
+    private final ConcurrentLinkedQueue<E> elementos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanho = new AtomicInteger();
+
+    @Override
+    public boolean offer(E elemento) {
+        tamanho.incrementAndGet();
+        return elementos.offer(elemento);
+    }
+
+    @Override
+    public E poll() {
+        E elemento = elementos.poll();
+        if (elemento != null) {
+            tamanho.decrementAndGet();
+        }
+        return elemento;
+    }
+
+    @Override
+    public E peek() {
+        return elementos.peek();
+    }
+
+    @Override
+    public int size() {
+        return tamanho.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elementos.isEmpty();
+    }
+
+    /**
+     * Iterador somente leitura: remoções devem passar por poll() para manter o contador.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = elementos.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next();
+            }
+        };
+    }
+}
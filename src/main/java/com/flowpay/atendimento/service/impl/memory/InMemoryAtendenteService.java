@@ -5,7 +5,9 @@ import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendenteService;
 import com.flowpay.atendimento.service.DistribuidorService;
 import com.flowpay.atendimento.service.NotificacaoService;
+import com.flowpay.atendimento.service.RegistroMetricas;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
@@ -22,11 +24,18 @@ public class InMemoryAtendenteService implements AtendenteService {
 
     private final Map<Long, Atendente> atendentes = new ConcurrentHashMap<>();
 
+    // Índice por time e carga, mantido pelo próprio Atendente a cada mudança de atendimentos ativos
+    private final IndiceCargaAtendentes indiceCarga = new IndiceCargaAtendentes(this::disponibilidadeAlterada);
+
     private final AtomicLong idGenerator = new AtomicLong(1);
 
     private final NotificacaoService notificacaoService;
     private final DistribuidorService distribuidorService;
 
+    // Contadores do dashboard - opcional para permitir uso isolado do serviço
+    @Autowired(required = false)
+    private RegistroMetricas registroMetricas;
+
     public InMemoryAtendenteService(
             @Lazy NotificacaoService notificacaoService,
             @Lazy DistribuidorService distribuidorService) {
@@ -48,7 +57,18 @@ public class InMemoryAtendenteService implements AtendenteService {
 
         atendente.setAtendimentosAtivos(0);
 
-        atendentes.put(atendente.getId(), atendente);
+        Atendente anterior = atendentes.put(atendente.getId(), atendente);
+        if (anterior != null) {
+            indiceCarga.remover(anterior);
+            if (registroMetricas != null) {
+                registroMetricas.atendenteRemovido(anterior.getTime(), !anterior.isDisponivel());
+            }
+        }
+        indiceCarga.registrar(atendente);
+
+        if (registroMetricas != null) {
+            registroMetricas.atendenteCadastrado(atendente.getTime());
+        }
 
         log.info("Atendente cadastrado: ID={}, Nome={}, Time={}",
                 atendente.getId(), atendente.getNome(), atendente.getTime());
@@ -63,19 +83,39 @@ public class InMemoryAtendenteService implements AtendenteService {
 
     @Override
     public List<Atendente> buscarDisponiveisPorTime(Time time) {
-        List<Atendente> disponiveis = atendentes.values().stream()
-                .filter(a -> a.getTime() == time)
-                .filter(Atendente::isDisponivel)
-                .sorted(Comparator.comparingInt(Atendente::getAtendimentosAtivos))
-                .collect(Collectors.toList());
+        List<Atendente> disponiveis = indiceCarga.disponiveis(time);
 
-        log.debug("Time {}: {} atendentes disponíveis de {} totais (ordenados por carga)",
-                time, disponiveis.size(),
-                atendentes.values().stream().filter(a -> a.getTime() == time).count());
+        log.debug("Time {}: {} atendentes disponíveis (ordenados por carga)",
+                time, disponiveis.size());
 
         return disponiveis;
     }
 
+    @Override
+    public Optional<Atendente> buscarMenosCarregadoPorTime(Time time) {
+        return Optional.ofNullable(indiceCarga.menosCarregado(time));
+    }
+
+    @Override
+    public Optional<Atendente> reservarVaga(Time time) {
+        return Optional.ofNullable(indiceCarga.reservar(time));
+    }
+
+    @Override
+    public List<Atendente> reservarVagas(Time time, int quantidade) {
+        List<Atendente> reservados = new ArrayList<>();
+
+        while (reservados.size() < quantidade) {
+            Atendente atendente = indiceCarga.reservar(time);
+            if (atendente == null) {
+                break;
+            }
+            reservados.add(atendente);
+        }
+
+        return reservados;
+    }
+
     @Override
     public Optional<Atendente> buscarPorId(Long id) {
         return Optional.ofNullable(atendentes.get(id));
@@ -92,4 +132,10 @@ public class InMemoryAtendenteService implements AtendenteService {
     public List<Atendente> listarTodos() {
         return new ArrayList<>(atendentes.values());
     }
+
+    private void disponibilidadeAlterada(Atendente atendente, boolean disponivel) {
+        if (registroMetricas != null) {
+            registroMetricas.disponibilidadeAlterada(atendente.getTime(), disponivel);
+        }
+    }
 }
@@ -5,8 +5,10 @@ import com.flowpay.atendimento.model.StatusAtendimento;
 import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendimentoService;
 import com.flowpay.atendimento.service.DistribuidorService;
+import com.flowpay.atendimento.service.RegistroMetricas;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -14,7 +16,6 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 @Service
 @Profile("memory")
@@ -26,6 +27,13 @@ public class InMemoryAtendimentoService implements AtendimentoService {
 
     private final Map<Long, Atendimento> atendimentos = new ConcurrentHashMap<>();
 
+    // Índice por time e status, atualizado a cada transição de status
+    private final IndiceStatusAtendimentos indiceStatus = new IndiceStatusAtendimentos();
+
+    // Contadores do dashboard - opcional para permitir uso isolado do serviço
+    @Autowired(required = false)
+    private RegistroMetricas registroMetricas;
+
     private final AtomicLong idGenerator = new AtomicLong(1);
 
     @Override
@@ -39,6 +47,11 @@ public class InMemoryAtendimentoService implements AtendimentoService {
         atendimento.setDataHoraCriacao(LocalDateTime.now());
 
         atendimentos.put(atendimento.getId(), atendimento);
+        indiceStatus.registrar(atendimento);
+
+        if (registroMetricas != null) {
+            registroMetricas.atendimentoCriado(atendimento.getTime());
+        }
 
         log.info("Atendimento criado: ID={}, Cliente={}, Assunto={}, Time={}",
                 atendimento.getId(),
@@ -58,16 +71,17 @@ public class InMemoryAtendimentoService implements AtendimentoService {
 
     @Override
     public List<Atendimento> listarPorTime(Time time) {
-        return atendimentos.values().stream()
-                .filter(a -> a.getTime() == time)
-                .collect(Collectors.toList());
+        return indiceStatus.listarPorTime(time);
     }
 
     @Override
     public List<Atendimento> listarPorStatus(StatusAtendimento status) {
-        return atendimentos.values().stream()
-                .filter(a -> a.getStatus() == status)
-                .collect(Collectors.toList());
+        return indiceStatus.listarPorStatus(status);
+    }
+
+    @Override
+    public List<Atendimento> listarPorTimeEStatus(Time time, StatusAtendimento status) {
+        return indiceStatus.listar(time, status);
     }
 
     @Override
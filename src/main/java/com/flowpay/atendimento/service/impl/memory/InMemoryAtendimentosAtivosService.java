@@ -0,0 +1,55 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendimentosAtivosService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Profile("memory")
+@Slf4j
+public class InMemoryAtendimentosAtivosService implements AtendimentosAtivosService {
+
+    // Map: ID do atendimento -> Atendimento
+    private final Map<Long, Atendimento> atendimentosAtivos = new ConcurrentHashMap<>();
+
+    @Override
+    public void registrar(Atendimento atendimento) {
+        atendimentosAtivos.put(atendimento.getId(), atendimento);
+    }
+
+    @Override
+    public Optional<Atendimento> remover(Long atendimentoId) {
+        if (atendimentoId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(atendimentosAtivos.remove(atendimentoId));
+    }
+
+    @Override
+    public Optional<Atendimento> buscar(Long atendimentoId) {
+        if (atendimentoId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(atendimentosAtivos.get(atendimentoId));
+    }
+
+    @Override
+    public List<Atendimento> listar() {
+        return List.copyOf(atendimentosAtivos.values());
+    }
+
+    @Override
+    public List<Atendimento> listarPorTime(Time time) {
+        return atendimentosAtivos.values().stream()
+                .filter(a -> a.getTime() == time)
+                .toList();
+    }
+}
@@ -9,7 +9,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Service
 @Profile("memory")
@@ -20,7 +19,7 @@ public class InMemoryFilaService implements FilaService {
 
     public InMemoryFilaService() {
         Arrays.stream(Time.values())
-                .forEach(time -> filas.put(time, new ConcurrentLinkedQueue<>()));
+                .forEach(time -> filas.put(time, new FilaContada<>()));
 
         log.info("InMemoryFilaService inicializado com {} filas", Time.values().length);
     }
@@ -56,6 +55,24 @@ public class InMemoryFilaService implements FilaService {
         return atendimento;
     }
 
+    @Override
+    public List<Atendimento> desenfileirarLote(Time time, int quantidade) {
+        Queue<Atendimento> fila = filas.get(time);
+        List<Atendimento> lote = new ArrayList<>(Math.max(0, Math.min(quantidade, fila.size())));
+
+        while (lote.size() < quantidade) {
+            Atendimento atendimento = fila.poll();
+            if (atendimento == null) {
+                break;
+            }
+            lote.add(atendimento);
+        }
+
+        log.info("Desenfileirados {} atendimento(s) em lote do time {}", lote.size(), time);
+
+        return lote;
+    }
+
     @Override
     public List<Atendimento> listarFila(Time time) {
         return new ArrayList<>(filas.get(time));
@@ -63,6 +80,7 @@ public class InMemoryFilaService implements FilaService {
 
     @Override
     public int tamanhoFila(Time time) {
+        // O(1): FilaContada mantém o tamanho em um contador atômico
         return filas.get(time).size();
     }
 
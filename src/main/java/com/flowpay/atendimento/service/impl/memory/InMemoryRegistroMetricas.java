@@ -0,0 +1,169 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendenteService;
+import com.flowpay.atendimento.service.AtendimentoService;
+import com.flowpay.atendimento.service.FilaService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores do dashboard em memória: um LongAdder por time para cada contagem.
+ *
+ * Na inicialização os contadores são carregados uma única vez a partir do storage.
+ */
+@Component
+@Profile("memory")
+@Slf4j
+public class InMemoryRegistroMetricas implements RegistroMetricas {
+
+    private final Map<Time, Map<StatusAtendimento, LongAdder>> atendimentos = new EnumMap<>(Time.class);
+    private final Map<Time, LongAdder> filas = new EnumMap<>(Time.class);
+    private final Map<Time, LongAdder> atendentes = new EnumMap<>(Time.class);
+    private final Map<Time, LongAdder> atendentesLotados = new EnumMap<>(Time.class);
+
+    private final AtendimentoService atendimentoService;
+    private final AtendenteService atendenteService;
+    private final FilaService filaService;
+
+    public InMemoryRegistroMetricas(
+            @Lazy AtendimentoService atendimentoService,
+            @Lazy AtendenteService atendenteService,
+            @Lazy FilaService filaService) {
+        this.atendimentoService = atendimentoService;
+        this.atendenteService = atendenteService;
+        this.filaService = filaService;
+
+        for (Time time : Time.values()) {
+            Map<StatusAtendimento, LongAdder> porStatus = new EnumMap<>(StatusAtendimento.class);
+            for (StatusAtendimento status : StatusAtendimento.values()) {
+                porStatus.put(status, new LongAdder());
+            }
+            atendimentos.put(time, porStatus);
+            filas.put(time, new LongAdder());
+            atendentes.put(time, new LongAdder());
+            atendentesLotados.put(time, new LongAdder());
+        }
+    }
+
+    /**
+     * Carrega os contadores a partir do estado atual do storage (única leitura completa).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarEstadoInicial() {
+        zerar();
+
+        for (Atendimento atendimento : atendimentoService.listarTodos()) {
+            if (atendimento.getTime() != null && atendimento.getStatus() != null) {
+                atendimentos.get(atendimento.getTime()).get(atendimento.getStatus()).increment();
+            }
+        }
+
+        for (Atendente atendente : atendenteService.listarTodos()) {
+            atendentes.get(atendente.getTime()).increment();
+            if (!atendente.isDisponivel()) {
+                atendentesLotados.get(atendente.getTime()).increment();
+            }
+        }
+
+        for (Time time : Time.values()) {
+            filas.get(time).add(filaService.tamanhoFila(time));
+        }
+
+        Contagens contagens = contagens();
+        log.info("Métricas carregadas: ativos={}, fila={}, atendentes={}/{}",
+                contagens.totalAtendimentosAtivos(), contagens.totalNaFila(),
+                contagens.atendentesDisponiveis(), contagens.totalAtendentes());
+    }
+
+    // ===== Transições =====
+
+    @Override
+    public void atendimentoCriado(Time time) {
+        atendimentos.get(time).get(StatusAtendimento.AGUARDANDO_ATENDIMENTO).increment();
+    }
+
+    @Override
+    public void statusAlterado(Time time, StatusAtendimento anterior, StatusAtendimento atual) {
+        if (anterior == atual) {
+            return;
+        }
+        if (anterior != null) {
+            atendimentos.get(time).get(anterior).decrement();
+        }
+        if (atual != null) {
+            atendimentos.get(time).get(atual).increment();
+        }
+    }
+
+    @Override
+    public void enfileirado(Time time) {
+        filas.get(time).increment();
+    }
+
+    @Override
+    public void desenfileirados(Time time, int quantidade) {
+        filas.get(time).add(-quantidade);
+    }
+
+    @Override
+    public void atendenteCadastrado(Time time) {
+        atendentes.get(time).increment();
+    }
+
+    @Override
+    public void atendenteRemovido(Time time, boolean lotado) {
+        atendentes.get(time).decrement();
+        if (lotado) {
+            atendentesLotados.get(time).decrement();
+        }
+    }
+
+    @Override
+    public void disponibilidadeAlterada(Time time, boolean disponivel) {
+        if (disponivel) {
+            atendentesLotados.get(time).decrement();
+        } else {
+            atendentesLotados.get(time).increment();
+        }
+    }
+
+    // ===== Leituras O(times) =====
+
+    @Override
+    public Contagem contagem(Time time) {
+        return new Contagem(
+                atendimentos.get(time).get(StatusAtendimento.EM_ATENDIMENTO).intValue(),
+                Math.max(0, filas.get(time).intValue()),
+                atendentes.get(time).intValue(),
+                atendentesLotados.get(time).intValue());
+    }
+
+    @Override
+    public Contagens contagens() {
+        Map<Time, Contagem> porTime = new EnumMap<>(Time.class);
+        for (Time time : Time.values()) {
+            porTime.put(time, contagem(time));
+        }
+        return new Contagens(porTime);
+    }
+
+    private void zerar() {
+        atendimentos.values().forEach(porStatus -> porStatus.values().forEach(LongAdder::reset));
+        filas.values().forEach(LongAdder::reset);
+        atendentes.values().forEach(LongAdder::reset);
+        atendentesLotados.values().forEach(LongAdder::reset);
+    }
+}
@@ -0,0 +1,183 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Time;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice de atendentes disponíveis por time, organizado em faixas de carga.
+ *
+ * Cada time possui uma faixa para cada quantidade de atendimentos ativos
+ * (0 até MAX_ATENDIMENTOS - 1). Atendentes lotados não ficam em nenhuma faixa.
+ * Dentro de uma faixa os atendentes são ordenados por ID, mantendo o desempate
+ * determinístico.
+ *
+ * O índice é mantido atualizado como observador de carga do próprio Atendente,
+ * então buscar o menos carregado custa O(log n) e não aloca objetos.
+ */
+class IndiceCargaAtendentes implements Atendente.ObservadorCarga {
+
+    private static final Comparator<Atendente> POR_ID = Comparator.comparing(Atendente::getId);
+
+    private final Map<Time, List<ConcurrentSkipListSet<Atendente>>> faixasPorTime = new EnumMap<>(Time.class);
+
+    private final ObservadorDisponibilidade observadorDisponibilidade;
+
+    IndiceCargaAtendentes(ObservadorDisponibilidade observadorDisponibilidade) {
+        this.observadorDisponibilidade = observadorDisponibilidade;
+
+        for (Time time : Time.values()) {
+            List<ConcurrentSkipListSet<Atendente>> faixas = new ArrayList<>(Atendente.MAX_ATENDIMENTOS);
+            for (int carga = 0; carga < Atendente.MAX_ATENDIMENTOS; carga++) {
+                faixas.add(new ConcurrentSkipListSet<>(POR_ID));
+            }
+            faixasPorTime.put(time, faixas);
+        }
+    }
+
+    /**
+     * Passa a acompanhar o atendente e o posiciona na faixa da carga atual.
+     */
+    void registrar(Atendente atendente) {
+        atendente.setObservadorCarga(this);
+        reindexar(atendente);
+    }
+
+    /**
+     * Deixa de acompanhar o atendente e o retira de todas as faixas.
+     */
+    void remover(Atendente atendente) {
+        List<ConcurrentSkipListSet<Atendente>> faixas = faixasPorTime.get(atendente.getTime());
+
+        synchronized (atendente) {
+            atendente.setObservadorCarga(null);
+            if (faixas != null) {
+                faixas.forEach(faixa -> faixa.remove(atendente));
+            }
+        }
+    }
+
+    @Override
+    public void cargaAlterada(Atendente atendente, int anterior, int atual) {
+        if (!reindexar(atendente)) {
+            // Removido enquanto a notificação estava em andamento: não volta ao índice
+            return;
+        }
+
+        boolean estavaDisponivel = anterior < Atendente.MAX_ATENDIMENTOS;
+        boolean ficouDisponivel = atual < Atendente.MAX_ATENDIMENTOS;
+        if (estavaDisponivel != ficouDisponivel) {
+            observadorDisponibilidade.disponibilidadeAlterada(atendente, ficouDisponivel);
+        }
+    }
+
+    /**
+     * Move o atendente para a faixa correspondente à sua carga atual.
+     * O lock é por atendente, então times e atendentes diferentes não competem entre si.
+     *
+     * Retorna false, sem alterar as faixas, se o atendente já foi removido do índice:
+     * uma mudança de carga notificada antes do remover pode chegar aqui depois dele.
+     */
+    private boolean reindexar(Atendente atendente) {
+        List<ConcurrentSkipListSet<Atendente>> faixas = faixasPorTime.get(atendente.getTime());
+
+        if (faixas == null) {
+            return false;
+        }
+
+        synchronized (atendente) {
+            if (atendente.getObservadorCarga() != this) {
+                return false;
+            }
+
+            int carga = atendente.getAtendimentosAtivos();
+            for (int faixa = 0; faixa < faixas.size(); faixa++) {
+                if (faixa != carga) {
+                    faixas.get(faixa).remove(atendente);
+                }
+            }
+            if (carga >= 0 && carga < faixas.size()) {
+                faixas.get(carga).add(atendente);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna o atendente disponível com menor carga do time, ou null se não houver.
+     */
+    Atendente menosCarregado(Time time) {
+        for (ConcurrentSkipListSet<Atendente> faixa : faixasPorTime.get(time)) {
+            if (faixa.isEmpty()) {
+                continue;
+            }
+            try {
+                return faixa.first();
+            } catch (NoSuchElementException e) {
+                // Faixa esvaziou entre a verificação e a leitura: segue para a próxima
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reserva uma vaga no atendente de menor carga do time, ou retorna null se todos estiverem lotados.
+     *
+     * O caminho comum (CAS bem-sucedido no primeiro da menor faixa) não aloca objetos.
+     * Se o CAS falhar por concorrência, percorre as faixas em ordem tentando o
+     * próximo menos carregado.
+     */
+    Atendente reservar(Time time) {
+        Atendente candidato = menosCarregado(time);
+        if (candidato == null) {
+            return null;
+        }
+        if (candidato.tentarReservarVaga()) {
+            return candidato;
+        }
+
+        for (ConcurrentSkipListSet<Atendente> faixa : faixasPorTime.get(time)) {
+            for (Atendente atendente : faixa) {
+                if (atendente.tentarReservarVaga()) {
+                    return atendente;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lista os atendentes disponíveis do time, do menos para o mais carregado.
+     */
+    List<Atendente> disponiveis(Time time) {
+        List<Atendente> disponiveis = new ArrayList<>();
+        Set<Long> vistos = new HashSet<>();
+        for (ConcurrentSkipListSet<Atendente> faixa : faixasPorTime.get(time)) {
+            for (Atendente atendente : faixa) {
+                // Evita duplicar quem mudou de faixa durante a iteração
+                if (vistos.add(atendente.getId())) {
+                    disponiveis.add(atendente);
+                }
+            }
+        }
+        return disponiveis;
+    }
+
+    /**
+     * Recebe notificações quando um atendente fica lotado (false) ou volta a ter vaga (true).
+     */
+    @FunctionalInterface
+    interface ObservadorDisponibilidade {
+
+        void disponibilidadeAlterada(Atendente atendente, boolean disponivel);
+    }
+}
@@ -0,0 +1,97 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de atendimentos por time e status.
+ *
+ * Cada par (time, status) tem seu próprio mapa ordenado por ID. O índice é
+ * mantido como observador de status do próprio Atendimento, então listar os
+ * atendimentos em andamento custa O(resultado), sem percorrer o histórico de
+ * finalizados que só cresce.
+ */
+class IndiceStatusAtendimentos implements Atendimento.ObservadorStatus {
+
+    private final Map<Time, Map<StatusAtendimento, Map<Long, Atendimento>>> porTimeEStatus = new EnumMap<>(Time.class);
+
+    IndiceStatusAtendimentos() {
+        for (Time time : Time.values()) {
+            Map<StatusAtendimento, Map<Long, Atendimento>> porStatus = new EnumMap<>(StatusAtendimento.class);
+            for (StatusAtendimento status : StatusAtendimento.values()) {
+                porStatus.put(status, new ConcurrentSkipListMap<>());
+            }
+            porTimeEStatus.put(time, porStatus);
+        }
+    }
+
+    /**
+     * Passa a acompanhar o atendimento e o posiciona no status atual.
+     */
+    void registrar(Atendimento atendimento) {
+        synchronized (atendimento) {
+            atendimento.setObservadorStatus(this);
+            adicionar(atendimento, atendimento.getStatus());
+        }
+    }
+
+    /**
+     * Move o atendimento do status anterior para o atual.
+     * O lock é por atendimento, então transições de atendimentos diferentes não competem entre si.
+     */
+    @Override
+    public void statusAlterado(Atendimento atendimento, StatusAtendimento anterior) {
+        synchronized (atendimento) {
+            Map<Long, Atendimento> origem = mapa(atendimento.getTime(), anterior);
+            if (origem != null) {
+                origem.remove(atendimento.getId());
+            }
+            adicionar(atendimento, atendimento.getStatus());
+        }
+    }
+
+    List<Atendimento> listar(Time time, StatusAtendimento status) {
+        Map<Long, Atendimento> mapa = mapa(time, status);
+        return mapa != null ? new ArrayList<>(mapa.values()) : new ArrayList<>();
+    }
+
+    List<Atendimento> listarPorTime(Time time) {
+        List<Atendimento> resultado = new ArrayList<>();
+        Map<StatusAtendimento, Map<Long, Atendimento>> porStatus = porTimeEStatus.get(time);
+
+        if (porStatus != null) {
+            porStatus.values().forEach(m -> resultado.addAll(m.values()));
+        }
+        return resultado;
+    }
+
+    List<Atendimento> listarPorStatus(StatusAtendimento status) {
+        List<Atendimento> resultado = new ArrayList<>();
+
+        if (status != null) {
+            porTimeEStatus.values().forEach(porStatus -> resultado.addAll(porStatus.get(status).values()));
+        }
+        return resultado;
+    }
+
+    private void adicionar(Atendimento atendimento, StatusAtendimento status) {
+        Map<Long, Atendimento> destino = mapa(atendimento.getTime(), status);
+        if (destino != null) {
+            destino.put(atendimento.getId(), atendimento);
+        }
+    }
+
+    private Map<Long, Atendimento> mapa(Time time, StatusAtendimento status) {
+        if (time == null || status == null) {
+            return null;
+        }
+        return porTimeEStatus.get(time).get(status);
+    }
+}
@@ -0,0 +1,107 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geração de IDs em blocos (hi/lo) a partir dos contadores do Redis.
+ *
+ * Em vez de um INCR por cadastro, cada instância reserva flowpay.redis.ids.bloco IDs
+ * de uma vez com INCRBY e os entrega localmente por um AtomicLong. O contador no Redis
+ * continua guardando o último ID reservado, então blocos de instâncias diferentes
+ * nunca se sobrepõem e os IDs de cada instância são crescentes.
+ *
+ * IDs reservados e não usados (ex.: reinício da aplicação) ficam sem uso; as lacunas
+ * são esperadas. Com bloco 1 o comportamento é o mesmo do INCR por cadastro.
+ */
+@Component
+@Profile("redis")
+@Slf4j
+public class AlocadorIdsRedis {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final long tamanhoBloco;
+    private final Counter reservas;
+
+    // Contador no Redis -> bloco em uso nesta instância
+    private final Map<String, Reserva> reservasPorContador = new ConcurrentHashMap<>();
+
+    public AlocadorIdsRedis(
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.redis.ids.bloco:1000}") long tamanhoBloco) {
+        if (tamanhoBloco < 1) {
+            throw new IllegalArgumentException("flowpay.redis.ids.bloco deve ser maior que zero");
+        }
+        this.redisTemplate = redisTemplate;
+        this.tamanhoBloco = tamanhoBloco;
+        this.reservas = Counter.builder("flowpay.redis.ids.reservas")
+                .description("Blocos de IDs reservados no Redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Próximo ID do contador; só vai ao Redis quando o bloco atual se esgota.
+     */
+    public long proximo(String contador) {
+        return reservasPorContador.computeIfAbsent(contador, Reserva::new).proximo();
+    }
+
+    private final class Reserva {
+
+        private final String contador;
+        private volatile Faixa faixa = new Faixa(1, 0);
+
+        Reserva(String contador) {
+            this.contador = contador;
+        }
+
+        long proximo() {
+            while (true) {
+                Faixa atual = faixa;
+                long id = atual.proximo.getAndIncrement();
+                if (id <= atual.fim) {
+                    return id;
+                }
+
+                // Bloco esgotado: uma única thread reserva o próximo, as demais tentam de novo
+                synchronized (this) {
+                    if (faixa == atual) {
+                        faixa = reservar();
+                    }
+                }
+            }
+        }
+
+        private Faixa reservar() {
+            Long fim = redisTemplate.opsForValue().increment(contador, tamanhoBloco);
+            if (fim == null) {
+                throw new IllegalStateException("Redis não retornou o contador " + contador);
+            }
+
+            reservas.increment();
+            log.debug("Bloco de IDs reservado: contador={}, faixa={}..{}", contador, fim - tamanhoBloco + 1, fim);
+            return new Faixa(fim - tamanhoBloco + 1, fim);
+        }
+    }
+
+    private static final class Faixa {
+
+        private final AtomicLong proximo;
+        private final long fim;
+
+        Faixa(long inicio, long fim) {
+            this.proximo = new AtomicLong(inicio);
+            this.fim = fim;
+        }
+    }
+}
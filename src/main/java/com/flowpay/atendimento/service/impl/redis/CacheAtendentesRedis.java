@@ -0,0 +1,207 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Time;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache local (near cache) dos dados fixos dos atendentes: nome e time.
+ *
+ * A carga (atendimentosAtivos) muda a cada distribuição e nunca é guardada aqui; com o
+ * cache, o RedisAtendenteService troca o HGETALL por um HGET só da carga.
+ *
+ * O cache é limitado por tamanho (remove o menos usado) e por TTL. Quando um atendente é
+ * recadastrado, a instância publica o ID no canal atendentes:invalidacao e todas as
+ * instâncias descartam a entrada. Uma invalidação perdida (ex.: queda da conexão de
+ * pub/sub) fica limitada ao TTL.
+ *
+ * Para que uma leitura em andamento não guarde dados anteriores a uma invalidação, cada
+ * leitura registra a geração do cache antes de ir ao Redis e só é guardada se nenhuma
+ * invalidação aconteceu nesse meio tempo.
+ */
+@Component
+@Profile("redis")
+@ConditionalOnProperty(name = "flowpay.redis.cache-atendentes.habilitado", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CacheAtendentesRedis implements MessageListener {
+
+    static final String CANAL = "atendentes:invalidacao";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int tamanhoMaximo;
+    private final long ttlNanos;
+
+    private final Map<Long, Entrada> entradas;
+
+    // Incrementada a cada invalidação; protegida pelo lock de entradas
+    private long geracao;
+
+    private final Counter acertos;
+    private final Counter faltas;
+    private final Counter remocoesTamanho;
+    private final Counter remocoesTtl;
+    private final Counter remocoesInvalidacao;
+
+    public record Identidade(String nome, Time time) {
+    }
+
+    private record Entrada(Identidade identidade, long expiraEm) {
+    }
+
+    public CacheAtendentesRedis(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.redis.cache-atendentes.tamanho:10000}") int tamanhoMaximo,
+            @Value("${flowpay.redis.cache-atendentes.ttl-ms:60000}") long ttlMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttlNanos = ttlMs * 1_000_000;
+
+        this.acertos = Counter.builder("flowpay.redis.cache-atendentes.acertos")
+                .description("Buscas de atendente atendidas pelo cache local")
+                .register(meterRegistry);
+        this.faltas = Counter.builder("flowpay.redis.cache-atendentes.faltas")
+                .description("Buscas de atendente que foram ao Redis")
+                .register(meterRegistry);
+        this.remocoesTamanho = remocoes(meterRegistry, "tamanho");
+        this.remocoesTtl = remocoes(meterRegistry, "ttl");
+        this.remocoesInvalidacao = remocoes(meterRegistry, "invalidacao");
+
+        // Ordem de acesso: o primeiro da fila é o menos usado recentemente
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entrada> eldest) {
+                if (size() > CacheAtendentesRedis.this.tamanhoMaximo) {
+                    remocoesTamanho.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        Gauge.builder("flowpay.redis.cache-atendentes.tamanho", this, CacheAtendentesRedis::tamanho)
+                .description("Atendentes no cache local")
+                .register(meterRegistry);
+    }
+
+    private static Counter remocoes(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("flowpay.redis.cache-atendentes.remocoes")
+                .description("Entradas removidas do cache local")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CANAL));
+        log.info("Cache local de atendentes ativo: tamanho={}, ttl={}ms", tamanhoMaximo, ttlNanos / 1_000_000);
+    }
+
+    public Optional<Identidade> buscar(Long id) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(id);
+
+            if (entrada != null && entrada.expiraEm() - System.nanoTime() <= 0) {
+                entradas.remove(id);
+                remocoesTtl.increment();
+                entrada = null;
+            }
+
+            if (entrada == null) {
+                faltas.increment();
+                return Optional.empty();
+            }
+
+            acertos.increment();
+            return Optional.of(entrada.identidade());
+        }
+    }
+
+    /**
+     * Geração atual, a ser obtida antes de ler o atendente no Redis e repassada a guardar.
+     */
+    public long geracao() {
+        synchronized (entradas) {
+            return geracao;
+        }
+    }
+
+    /**
+     * Guarda nome e time lidos do Redis, a menos que tenha havido invalidação após a leitura.
+     */
+    public void guardar(Atendente atendente, long geracaoLeitura) {
+        Entrada entrada = new Entrada(new Identidade(atendente.getNome(), atendente.getTime()),
+                System.nanoTime() + ttlNanos);
+
+        synchronized (entradas) {
+            if (geracao == geracaoLeitura) {
+                entradas.put(atendente.getId(), entrada);
+            }
+        }
+    }
+
+    /**
+     * Descarta o atendente nesta instância e avisa as demais.
+     */
+    public void invalidar(Long id) {
+        invalidarLocal(id);
+
+        try {
+            stringRedisTemplate.convertAndSend(CANAL, id.toString());
+        } catch (DataAccessException e) {
+            // As outras instâncias ficam com a entrada antiga até o TTL
+            log.warn("Falha ao publicar invalidação do atendente {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Descarta o atendente só nesta instância (ex.: hash não existe mais no Redis).
+     */
+    public void invalidarLocal(Long id) {
+        synchronized (entradas) {
+            geracao++;
+            if (entradas.remove(id) != null) {
+                remocoesInvalidacao.increment();
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String corpo = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            invalidarLocal(Long.valueOf(corpo));
+        } catch (NumberFormatException e) {
+            log.warn("Invalidação de atendente ignorada: '{}'", corpo);
+        }
+    }
+
+    private int tamanho() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura em lote de registros no Redis.
+ *
+ * Em vez de uma ida ao Redis por registro, as chaves são agrupadas em blocos de
+ * flowpay.redis.lote.tamanho: valores simples usam um MGET por bloco e hashes
+ * usam HGETALL em pipeline. Listar 10 mil registros custa poucas idas e voltas.
+ *
+ * Os resultados seguem a ordem das chaves recebidas; chaves inexistentes
+ * retornam null (valores) ou mapa vazio (hashes).
+ */
+@Component
+@Profile("redis")
+@Slf4j
+public class CarregadorLoteRedis {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int tamanhoLote;
+
+    public CarregadorLoteRedis(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${flowpay.redis.lote.tamanho:500}") int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("flowpay.redis.lote.tamanho deve ser maior que zero");
+        }
+        this.redisTemplate = redisTemplate;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Lê valores simples com um MGET por bloco de chaves.
+     */
+    public List<Object> carregarValores(List<String> chaves) {
+        List<Object> valores = new ArrayList<>(chaves.size());
+
+        for (List<String> bloco : blocos(chaves)) {
+            List<Object> lidos = redisTemplate.opsForValue().multiGet(bloco);
+            if (lidos == null) {
+                // Só acontece dentro de pipeline/transação; mantém o alinhamento com as chaves
+                lidos = new ArrayList<>();
+                for (int i = 0; i < bloco.size(); i++) {
+                    lidos.add(null);
+                }
+            }
+            valores.addAll(lidos);
+        }
+
+        log.debug("{} valor(es) carregado(s) do Redis em lotes de {}", chaves.size(), tamanhoLote);
+        return valores;
+    }
+
+    /**
+     * Lê hashes inteiros com HGETALL em pipeline, um pipeline por bloco de chaves.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<Object, Object>> carregarHashes(List<String> chaves) {
+        List<Map<Object, Object>> hashes = new ArrayList<>(chaves.size());
+
+        for (List<String> bloco : blocos(chaves)) {
+            List<Object> lidos = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (String chave : bloco) {
+                        ops.opsForHash().entries(chave);
+                    }
+                    return null;
+                }
+            });
+
+            for (Object lido : lidos) {
+                hashes.add(lido instanceof Map ? (Map<Object, Object>) lido : Map.of());
+            }
+        }
+
+        log.debug("{} hash(es) carregado(s) do Redis em lotes de {}", chaves.size(), tamanhoLote);
+        return hashes;
+    }
+
+    private List<List<String>> blocos(List<String> chaves) {
+        List<List<String>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < chaves.size(); inicio += tamanhoLote) {
+            blocos.add(chaves.subList(inicio, Math.min(inicio + tamanhoLote, chaves.size())));
+        }
+        return blocos;
+    }
+}
@@ -0,0 +1,301 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.Atendimento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Escrita adiada (write-behind) dos atendimentos alterados na distribuição.
+ *
+ * Cada atribuição e finalização grava o atendimento inteiro (SET, via
+ * RedisAtendimentoService.persistir). Com a escrita adiada essas gravações ficam em um
+ * buffer por chave: alterações seguidas do mesmo atendimento se fundem e só o estado mais
+ * recente é gravado. O buffer é descarregado em um único pipeline a cada
+ * flowpay.redis.escrita-adiada.intervalo-ms ou ao atingir flowpay.redis.escrita-adiada.lote
+ * chaves, e também no encerramento.
+ *
+ * O registro do atendimento em andamento (HSET atendimentos:ativos e SADD
+ * atendimentos:ativos:{TIME}, via RedisAtendimentosAtivosService.registrar) também é
+ * adiado e vai no mesmo pipeline, então uma atribuição não faz nenhuma ida ao Redis para
+ * gravar o atendimento.
+ *
+ * Uma entrada só sai do buffer depois de gravada. Até lá, RedisAtendimentoService e
+ * RedisAtendimentosAtivosService leem através dela, então esta instância nunca vê um valor
+ * anterior ao que ela mesma alterou. Um registro finalizado antes de gravado é cancelado
+ * no buffer (cancelarAtivo) e nunca chega ao Redis.
+ * Outras instâncias veem a alteração apenas após a gravação; com várias instâncias
+ * alterando os mesmos atendimentos, mantenha desativado.
+ *
+ * A carga dos atendentes não passa por aqui: é alterada atomicamente no Redis na reserva
+ * e na liberação da vaga (RedisAtendenteService), junto com o índice de disponibilidade.
+ *
+ * A descarga periódica roda em uma thread própria, fora do agendador do Spring: um
+ * pipeline lento não atrasa o tick de métricas nem a sincronização do relay.
+ *
+ * Em caso de queda do processo, as alterações ainda no buffer se perdem: a métrica
+ * flowpay.redis.escrita-adiada.idade mostra a idade da mais antiga.
+ */
+@Component
+@Profile("redis")
+@ConditionalOnProperty(name = "flowpay.redis.escrita-adiada.habilitada", havingValue = "true")
+@Slf4j
+public class EscritaAdiadaRedis {
+
+    private static final String ATENDIMENTO_PREFIX = "atendimento:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final ScheduledExecutorService agendador =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("escrita-adiada").daemon().factory());
+
+    // Chave Redis -> último estado ainda não gravado
+    private final Map<String, Pendente> pendentes = new ConcurrentHashMap<>();
+    // ID -> atendimento em andamento ainda não registrado em atendimentos:ativos
+    private final Map<Long, Pendente> ativos = new ConcurrentHashMap<>();
+    private final AtomicBoolean descarregando = new AtomicBoolean();
+
+    private final Counter gravados;
+    private final Counter falhas;
+
+    public EscritaAdiadaRedis(
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.redis.escrita-adiada.lote:500}") int tamanhoLote,
+            @Value("${flowpay.redis.escrita-adiada.intervalo-ms:50}") long intervaloMs) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("flowpay.redis.escrita-adiada.lote deve ser maior que zero");
+        }
+        this.redisTemplate = redisTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+
+        Gauge.builder("flowpay.redis.escrita-adiada.pendentes", this, EscritaAdiadaRedis::totalPendentes)
+                .description("Atendimentos alterados ou registrados aguardando gravação no Redis")
+                .register(meterRegistry);
+        Gauge.builder("flowpay.redis.escrita-adiada.idade", this, EscritaAdiadaRedis::idadeMaisAntigaMs)
+                .description("Idade da alteração mais antiga ainda não gravada no Redis")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.gravados = Counter.builder("flowpay.redis.escrita-adiada.gravados")
+                .description("Atendimentos gravados no Redis pela escrita adiada")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("flowpay.redis.escrita-adiada.falhas")
+                .description("Descargas da escrita adiada que falharam e serão repetidas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda a gravação do atendimento; guarda uma cópia do estado atual.
+     */
+    public void atendimento(Atendimento atendimento) {
+        adicionar(ATENDIMENTO_PREFIX + atendimento.getId(), copiar(atendimento));
+    }
+
+    /**
+     * Cópia do atendimento ainda não gravado, se houver.
+     */
+    public Optional<Atendimento> atendimentoPendente(Long atendimentoId) {
+        Pendente pendente = pendentes.get(ATENDIMENTO_PREFIX + atendimentoId);
+        return pendente != null ? Optional.of(copiar(pendente.atendimento())) : Optional.empty();
+    }
+
+    /**
+     * Agenda o registro do atendimento em andamento; guarda uma cópia do estado atual.
+     */
+    public void ativo(Atendimento atendimento) {
+        ativos.merge(atendimento.getId(), new Pendente(System.currentTimeMillis(), copiar(atendimento)),
+                (anterior, novo) -> new Pendente(anterior.desde(), novo.atendimento()));
+        verificarLote();
+    }
+
+    /**
+     * Cópia do atendimento em andamento ainda não registrado, se houver.
+     */
+    public Optional<Atendimento> ativoPendente(Long atendimentoId) {
+        Pendente pendente = ativos.get(atendimentoId);
+        return pendente != null ? Optional.of(copiar(pendente.atendimento())) : Optional.empty();
+    }
+
+    /**
+     * Cópias dos atendimentos em andamento ainda não registrados.
+     */
+    public List<Atendimento> ativosPendentes() {
+        List<Atendimento> copias = new ArrayList<>(ativos.size());
+        for (Pendente pendente : ativos.values()) {
+            copias.add(copiar(pendente.atendimento()));
+        }
+        return copias;
+    }
+
+    /**
+     * Retira do buffer o registro ainda não gravado e o devolve, se houver.
+     *
+     * Sincronizado com a descarga: um registro já incluído em um pipeline em andamento
+     * só é considerado depois de gravado, e aí a remoção segue pelo Redis.
+     */
+    public synchronized Optional<Atendimento> cancelarAtivo(Long atendimentoId) {
+        Pendente pendente = ativos.remove(atendimentoId);
+        return pendente != null ? Optional.of(pendente.atendimento()) : Optional.empty();
+    }
+
+    private void adicionar(String chave, Atendimento atendimento) {
+        // A fusão mantém o horário da primeira alteração não gravada
+        pendentes.merge(chave, new Pendente(System.currentTimeMillis(), atendimento),
+                (anterior, nova) -> new Pendente(anterior.desde(), nova.atendimento()));
+        verificarLote();
+    }
+
+    private void verificarLote() {
+        if (totalPendentes() >= tamanhoLote && descarregando.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("escrita-adiada").start(() -> {
+                try {
+                    descarregar();
+                } finally {
+                    descarregando.set(false);
+                }
+            });
+        }
+    }
+
+    @PostConstruct
+    void iniciar() {
+        agendador.scheduleWithFixedDelay(this::descarregarAgendado, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void descarregarAgendado() {
+        try {
+            descarregar();
+        } catch (RuntimeException e) {
+            // Uma exceção cancelaria as próximas execuções do agendador
+            log.error("Erro inesperado na descarga da escrita adiada", e);
+        }
+    }
+
+    /**
+     * Grava as entradas pendentes em pipeline. Retorna false se a gravação falhou.
+     */
+    synchronized boolean descarregar() {
+        if (totalPendentes() == 0) {
+            return true;
+        }
+
+        List<Map.Entry<String, Pendente>> lote = new ArrayList<>(pendentes.size());
+        for (Map.Entry<String, Pendente> entrada : pendentes.entrySet()) {
+            lote.add(Map.entry(entrada.getKey(), entrada.getValue()));
+        }
+        List<Map.Entry<Long, Pendente>> loteAtivos = new ArrayList<>(ativos.size());
+        for (Map.Entry<Long, Pendente> entrada : ativos.entrySet()) {
+            loteAtivos.add(Map.entry(entrada.getKey(), entrada.getValue()));
+        }
+        int total = lote.size() + loteAtivos.size();
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    for (Map.Entry<String, Pendente> entrada : lote) {
+                        ops.opsForValue().set(entrada.getKey(), entrada.getValue().atendimento());
+                    }
+                    for (Map.Entry<Long, Pendente> entrada : loteAtivos) {
+                        Atendimento atendimento = entrada.getValue().atendimento();
+                        ops.opsForHash().put(RedisAtendimentosAtivosService.ATIVOS_KEY,
+                                entrada.getKey().toString(), atendimento);
+                        ops.opsForSet().add(RedisAtendimentosAtivosService.getAtivosTimeKey(atendimento.getTime()),
+                                entrada.getKey());
+                    }
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            // As entradas continuam no buffer e são regravadas na próxima descarga
+            falhas.increment();
+            log.warn("Falha ao gravar {} alteração(ões) adiada(s) no Redis: {}", total, e.getMessage());
+            return false;
+        }
+
+        // Remove só o que foi gravado: uma alteração feita durante a descarga continua pendente
+        for (Map.Entry<String, Pendente> entrada : lote) {
+            pendentes.computeIfPresent(entrada.getKey(),
+                    (chave, atual) -> atual == entrada.getValue() ? null : atual);
+        }
+        for (Map.Entry<Long, Pendente> entrada : loteAtivos) {
+            ativos.computeIfPresent(entrada.getKey(),
+                    (id, atual) -> atual == entrada.getValue() ? null : atual);
+        }
+
+        gravados.increment(total);
+        log.debug("{} alteração(ões) adiada(s) gravada(s) no Redis", total);
+        return true;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdown();
+
+        int tentativas = 0;
+        while (totalPendentes() > 0 && tentativas++ < 3) {
+            descarregar();
+        }
+
+        if (totalPendentes() > 0) {
+            log.error("{} alteração(ões) adiada(s) não gravada(s) no Redis no encerramento", totalPendentes());
+        }
+    }
+
+    private int totalPendentes() {
+        return pendentes.size() + ativos.size();
+    }
+
+    private double idadeMaisAntigaMs() {
+        long maisAntiga = Long.MAX_VALUE;
+        for (Pendente pendente : pendentes.values()) {
+            maisAntiga = Math.min(maisAntiga, pendente.desde());
+        }
+        for (Pendente pendente : ativos.values()) {
+            maisAntiga = Math.min(maisAntiga, pendente.desde());
+        }
+        return maisAntiga == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - maisAntiga;
+    }
+
+    private static Atendimento copiar(Atendimento atendimento) {
+        return Atendimento.builder()
+                .id(atendimento.getId())
+                .time(atendimento.getTime())
+                .atendenteId(atendimento.getAtendenteId())
+                .assunto(atendimento.getAssunto())
+                .nomeCliente(atendimento.getNomeCliente())
+                .status(atendimento.getStatus())
+                .dataHoraCriacao(atendimento.getDataHoraCriacao())
+                .dataHoraAtendimento(atendimento.getDataHoraAtendimento())
+                .dataHoraFinalizacao(atendimento.getDataHoraFinalizacao())
+                .build();
+    }
+
+    private record Pendente(long desde, Atendimento atendimento) {
+    }
+}
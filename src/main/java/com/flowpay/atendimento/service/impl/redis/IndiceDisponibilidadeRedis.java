@@ -0,0 +1,120 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Time;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice de disponibilidade por time no Redis.
+ *
+ * Cada time tem um sorted set atendentes:disponiveis:{TIME} com os IDs dos atendentes
+ * que ainda têm vaga, usando a quantidade de atendimentos ativos como score.
+ * Atendentes lotados saem do set e voltam quando uma vaga é liberada, então o
+ * menos carregado é obtido com um único ZRANGE, sem ler os hashes de todos os atendentes.
+ */
+@Component
+@Profile("redis")
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceDisponibilidadeRedis {
+
+    static final String DISPONIVEIS_PREFIX = "atendentes:disponiveis:";
+
+    private static final String ATENDENTE_PREFIX = "atendente:";
+    private static final String ATENDENTES_IDS_KEY = "atendentes:ids";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    static String getDisponiveisKey(Time time) {
+        return DISPONIVEIS_PREFIX + time.name();
+    }
+
+    /**
+     * Reconstrói o índice a partir dos hashes dos atendentes.
+     * Cobre bases gravadas antes da existência do índice e alterações feitas fora da aplicação.
+     */
+    @PostConstruct
+    void reconstruir() {
+        Set<Object> ids = redisTemplate.opsForSet().members(ATENDENTES_IDS_KEY);
+
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+
+        int indexados = 0;
+        for (Object idObj : ids) {
+            Long id = ((Number) idObj).longValue();
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(ATENDENTE_PREFIX + id);
+
+            if (entries.isEmpty()) {
+                continue;
+            }
+
+            Atendente atendente = Atendente.builder()
+                    .id(id)
+                    .time(Time.valueOf((String) entries.get("time")))
+                    .atendimentosAtivos(((Number) entries.get("atendimentosAtivos")).intValue())
+                    .build();
+
+            atualizar(atendente);
+            indexados++;
+        }
+
+        log.info("Índice de disponibilidade no Redis reconstruído: {} atendente(s)", indexados);
+    }
+
+    /**
+     * Reflete a carga atual do atendente: atualiza o score se houver vaga ou o remove se estiver lotado.
+     * Retorna true quando a disponibilidade mudou (entrou no índice ou saiu por ficar lotado).
+     */
+    public boolean atualizar(Atendente atendente) {
+        String key = getDisponiveisKey(atendente.getTime());
+
+        if (atendente.isDisponivel()) {
+            return Boolean.TRUE.equals(
+                    redisTemplate.opsForZSet().add(key, atendente.getId(), atendente.getAtendimentosAtivos()));
+        }
+
+        Long removidos = redisTemplate.opsForZSet().remove(key, atendente.getId());
+        return removidos != null && removidos > 0;
+    }
+
+    /**
+     * ID do atendente com vaga e menor carga do time.
+     */
+    public Optional<Long> menosCarregado(Time time) {
+        Set<Object> primeiro = redisTemplate.opsForZSet().range(getDisponiveisKey(time), 0, 0);
+
+        if (primeiro == null || primeiro.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(((Number) primeiro.iterator().next()).longValue());
+    }
+
+    /**
+     * IDs dos atendentes com vaga no time, do menos para o mais carregado.
+     */
+    public List<Long> disponiveis(Time time) {
+        Set<Object> membros = redisTemplate.opsForZSet().range(getDisponiveisKey(time), 0, -1);
+
+        List<Long> ids = new ArrayList<>();
+        if (membros != null) {
+            for (Object idObj : membros) {
+                ids.add(((Number) idObj).longValue());
+            }
+        }
+        return ids;
+    }
+}
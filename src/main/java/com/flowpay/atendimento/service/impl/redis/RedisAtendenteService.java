@@ -5,10 +5,15 @@ import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendenteService;
 import com.flowpay.atendimento.service.DistribuidorService;
 import com.flowpay.atendimento.service.NotificacaoService;
+import com.flowpay.atendimento.service.RegistroMetricas;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -22,16 +27,39 @@ public class RedisAtendenteService implements AtendenteService {
     private final RedisTemplate<String, Object> redisTemplate;
     private final NotificacaoService notificacaoService;
     private final DistribuidorService distribuidorService;
+    private final IndiceDisponibilidadeRedis indiceDisponibilidade;
+    private final CarregadorLoteRedis carregadorLote;
+    private final AlocadorIdsRedis alocadorIds;
+    private final RegistroMetricas registroMetricas;
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> scriptReservarVagas = carregarScript("redis/reservar_vagas.lua");
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> scriptLiberarVaga = carregarScript("redis/liberar_vaga.lua");
+
+    // Cache local de nome/time - só existe com flowpay.redis.cache-atendentes.habilitado=true
+    @Autowired(required = false)
+    private CacheAtendentesRedis cacheAtendentes;
 
     public RedisAtendenteService(
             RedisTemplate<String, Object> redisTemplate,
             @Lazy NotificacaoService notificacaoService,
-            @Lazy DistribuidorService distribuidorService) {
+            @Lazy DistribuidorService distribuidorService,
+            IndiceDisponibilidadeRedis indiceDisponibilidade,
+            CarregadorLoteRedis carregadorLote,
+            AlocadorIdsRedis alocadorIds,
+            RegistroMetricas registroMetricas) {
         this.redisTemplate = redisTemplate;
         this.notificacaoService = notificacaoService;
         this.distribuidorService = distribuidorService;
+        this.indiceDisponibilidade = indiceDisponibilidade;
+        this.carregadorLote = carregadorLote;
+        this.alocadorIds = alocadorIds;
+        this.registroMetricas = registroMetricas;
     }
 
+    private static final RedisSerializer<String> STRING = RedisSerializer.string();
+
     private static final String ATENDENTE_PREFIX = "atendente:";
     private static final String ATENDENTES_IDS_KEY = "atendentes:ids";
     private static final String ID_COUNTER_KEY = "atendente:id:counter";
@@ -41,7 +69,7 @@ public class RedisAtendenteService implements AtendenteService {
     }
 
     private Long gerarProximoId() {
-        return redisTemplate.opsForValue().increment(ID_COUNTER_KEY);
+        return alocadorIds.proximo(ID_COUNTER_KEY);
     }
 
     @Override
@@ -65,7 +93,22 @@ public class RedisAtendenteService implements AtendenteService {
         redisTemplate.opsForHash().put(key, "time", atendente.getTime().name());
         redisTemplate.opsForHash().put(key, "atendimentosAtivos", atendente.getAtendimentosAtivos());
 
-        redisTemplate.opsForSet().add(ATENDENTES_IDS_KEY, atendente.getId());
+        Long adicionados = redisTemplate.opsForSet().add(ATENDENTES_IDS_KEY, atendente.getId());
+        boolean disponibilidadeAlterada = indiceDisponibilidade.atualizar(atendente);
+
+        if (adicionados != null && adicionados > 0) {
+            registroMetricas.atendenteCadastrado(atendente.getTime());
+        } else {
+            // Recadastro pode mudar nome/time: descarta o cache em todas as instâncias
+            if (cacheAtendentes != null) {
+                cacheAtendentes.invalidar(atendente.getId());
+            }
+
+            if (disponibilidadeAlterada) {
+                // Recadastro de um atendente que estava lotado: a carga voltou a zero
+                registroMetricas.disponibilidadeAlterada(atendente.getTime(), true);
+            }
+        }
 
         log.info("Atendente cadastrado no Redis: ID={}, Nome={}, Time={}",
                 atendente.getId(), atendente.getNome(), atendente.getTime());
@@ -80,34 +123,176 @@ public class RedisAtendenteService implements AtendenteService {
 
     @Override
     public List<Atendente> buscarDisponiveisPorTime(Time time) {
-        return listarPorTime(time).stream()
+        // O índice já traz só os atendentes do time com vaga, ordenados por carga
+        return carregarEmLote(indiceDisponibilidade.disponiveis(time)).stream()
                 .filter(Atendente::isDisponivel)
-                .sorted(Comparator.comparingInt(Atendente::getAtendimentosAtivos))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Optional<Atendente> buscarMenosCarregadoPorTime(Time time) {
+        return indiceDisponibilidade.menosCarregado(time)
+                .flatMap(this::buscarPorId)
+                .filter(Atendente::isDisponivel);
+    }
+
+    /**
+     * Reserva a vaga com HINCRBY em script Lua (reservar_vagas.lua), que só incrementa
+     * se o atendente ainda tiver vaga e atualiza junto o índice de disponibilidade e a
+     * contagem de lotados do dashboard.
+     * Reservas e liberações de várias instâncias são aplicadas uma a uma no Redis.
+     * Como os scripts do modo redis-lua, calcula as chaves dos atendentes no próprio
+     * script, o que exige um Redis standalone (ou réplica), não Redis Cluster.
+     */
+    @Override
+    public Optional<Atendente> reservarVaga(Time time) {
+        return reservarVagas(time, 1).stream().findFirst();
+    }
+
+    @Override
+    public List<Atendente> reservarVagas(Time time, int quantidade) {
+        if (quantidade <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Pares {id, carga após a reserva}, na ordem das reservas
+        List<String> reservas = executar(scriptReservarVagas,
+                List.of(IndiceDisponibilidadeRedis.getDisponiveisKey(time), RedisRegistroMetricas.getMetricasKey(time)),
+                String.valueOf(Atendente.MAX_ATENDIMENTOS),
+                ATENDENTE_PREFIX,
+                String.valueOf(quantidade));
+
+        if (reservas.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = new ArrayList<>(reservas.size() / 2);
+        for (int i = 0; i < reservas.size(); i += 2) {
+            ids.add(Long.valueOf(reservas.get(i)));
+        }
+
+        // Um mesmo atendente reservado mais de uma vez é a mesma instância na lista
+        Map<Long, Atendente> carregados = new HashMap<>();
+        for (Atendente atendente : carregarEmLote(ids.stream().distinct().toList())) {
+            carregados.put(atendente.getId(), atendente);
+        }
+
+        List<Atendente> reservados = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            int carga = Integer.parseInt(reservas.get(2 * i + 1));
+
+            Atendente atendente = carregados.computeIfAbsent(id,
+                    ignorado -> Atendente.builder().id(id).time(time).build());
+            atendente.setAtendimentosAtivos(carga);
+            reservados.add(atendente);
+        }
+
+        log.debug("{} vaga(s) reservada(s) no Redis para o time {}", reservados.size(), time);
+        return reservados;
+    }
+
+    @Override
+    public boolean liberarVaga(Atendente atendente) {
+        List<String> resultado = executar(scriptLiberarVaga,
+                List.of(getAtendenteKey(atendente.getId()),
+                        IndiceDisponibilidadeRedis.getDisponiveisKey(atendente.getTime()),
+                        RedisRegistroMetricas.getMetricasKey(atendente.getTime())),
+                String.valueOf(atendente.getId()));
+
+        if (resultado.isEmpty()) {
+            return false;
+        }
+
+        atendente.setAtendimentosAtivos(Integer.parseInt(resultado.get(0)));
+
+        log.debug("Vaga do atendente {} liberada no Redis: {}/3 atendimentos",
+                atendente.getId(), atendente.getAtendimentosAtivos());
+        return true;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<String> executar(DefaultRedisScript<List> script, List<String> keys, String... args) {
+        List<String> resultado = redisTemplate.execute(script, STRING, (RedisSerializer) STRING, keys, (Object[]) args);
+        return resultado != null ? resultado : List.of();
+    }
+
     @Override
     public Optional<Atendente> buscarPorId(Long id) {
-        String key = getAtendenteKey(id);
+        if (cacheAtendentes != null) {
+            Optional<CacheAtendentesRedis.Identidade> identidade = cacheAtendentes.buscar(id);
+            if (identidade.isPresent()) {
+                return buscarCarga(id, identidade.get());
+            }
+        }
+
+        long geracao = cacheAtendentes != null ? cacheAtendentes.geracao() : 0;
 
-        if (Boolean.FALSE.equals(redisTemplate.hasKey(key))) {
+        // HGETALL de chave inexistente retorna vazio, dispensando o EXISTS
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(getAtendenteKey(id));
+
+        if (entries.isEmpty()) {
             return Optional.empty();
         }
 
-        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+        Atendente atendente = converter(entries);
+        if (cacheAtendentes != null) {
+            cacheAtendentes.guardar(atendente, geracao);
+        }
+        return Optional.of(atendente);
+    }
 
-        if (entries.isEmpty()) {
+    /**
+     * Completa nome/time do cache com a carga atual, lida com um HGET só do campo atendimentosAtivos.
+     */
+    private Optional<Atendente> buscarCarga(Long id, CacheAtendentesRedis.Identidade identidade) {
+        Object carga = redisTemplate.opsForHash().get(getAtendenteKey(id), "atendimentosAtivos");
+        if (carga == null) {
+            // O hash não existe mais: a entrada do cache está obsoleta
+            cacheAtendentes.invalidarLocal(id);
             return Optional.empty();
         }
+        int atendimentosAtivos = ((Number) carga).intValue();
 
-        Atendente atendente = Atendente.builder()
-                .id(((Number) entries.get("id")).longValue())
+        return Optional.of(Atendente.builder()
+                .id(id)
+                .nome(identidade.nome())
+                .time(identidade.time())
+                .atendimentosAtivos(atendimentosAtivos)
+                .build());
+    }
+
+    private Atendente converter(Map<Object, Object> entries) {
+        Long id = ((Number) entries.get("id")).longValue();
+        int atendimentosAtivos = ((Number) entries.get("atendimentosAtivos")).intValue();
+
+        return Atendente.builder()
+                .id(id)
                 .nome((String) entries.get("nome"))
                 .time(Time.valueOf((String) entries.get("time")))
-                .atendimentosAtivos(((Number) entries.get("atendimentosAtivos")).intValue())
+                .atendimentosAtivos(atendimentosAtivos)
                 .build();
+    }
 
-        return Optional.of(atendente);
+    /**
+     * Carrega vários atendentes com HGETALL em pipeline, preservando a ordem dos IDs.
+     */
+    private List<Atendente> carregarEmLote(List<Long> ids) {
+        List<String> keys = ids.stream().map(this::getAtendenteKey).toList();
+        long geracao = cacheAtendentes != null ? cacheAtendentes.geracao() : 0;
+
+        List<Atendente> atendentes = new ArrayList<>(ids.size());
+        for (Map<Object, Object> entries : carregadorLote.carregarHashes(keys)) {
+            if (!entries.isEmpty()) {
+                Atendente atendente = converter(entries);
+                if (cacheAtendentes != null) {
+                    // Aproveita a leitura completa para aquecer o cache
+                    cacheAtendentes.guardar(atendente, geracao);
+                }
+                atendentes.add(atendente);
+            }
+        }
+        return atendentes;
     }
 
     @Override
@@ -125,12 +310,16 @@ public class RedisAtendenteService implements AtendenteService {
             return new ArrayList<>();
         }
 
-        List<Atendente> atendentes = new ArrayList<>();
-        for (Object idObj : ids) {
-            Long id = ((Number) idObj).longValue();
-            buscarPorId(id).ifPresent(atendentes::add);
-        }
+        return carregarEmLote(ids.stream()
+                .map(idObj -> ((Number) idObj).longValue())
+                .toList());
+    }
 
-        return atendentes;
+    @SuppressWarnings("rawtypes")
+    private static DefaultRedisScript<List> carregarScript(String caminho) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(caminho));
+        script.setResultType(List.class);
+        return script;
     }
 }
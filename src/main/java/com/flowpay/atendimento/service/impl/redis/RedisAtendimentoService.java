@@ -5,8 +5,10 @@ import com.flowpay.atendimento.model.StatusAtendimento;
 import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.AtendimentoService;
 import com.flowpay.atendimento.service.DistribuidorService;
+import com.flowpay.atendimento.service.RegistroMetricas;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,13 @@ public class RedisAtendimentoService implements AtendimentoService {
 
     private final DistribuidorService distribuidorService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final CarregadorLoteRedis carregadorLote;
+    private final AlocadorIdsRedis alocadorIds;
+    private final RegistroMetricas registroMetricas;
+
+    // Escrita adiada - só existe com flowpay.redis.escrita-adiada.habilitada=true
+    @Autowired(required = false)
+    private EscritaAdiadaRedis escritaAdiada;
 
     private static final String ATENDIMENTO_PREFIX = "atendimento:";
     private static final String ATENDIMENTOS_IDS_KEY = "atendimentos:ids";
@@ -33,7 +42,7 @@ public class RedisAtendimentoService implements AtendimentoService {
     }
 
     private Long gerarProximoId() {
-        return redisTemplate.opsForValue().increment(ID_COUNTER_KEY);
+        return alocadorIds.proximo(ID_COUNTER_KEY);
     }
 
     @Override
@@ -49,6 +58,7 @@ public class RedisAtendimentoService implements AtendimentoService {
         String key = getAtendimentoKey(atendimento.getId());
         redisTemplate.opsForValue().set(key, atendimento);
         redisTemplate.opsForSet().add(ATENDIMENTOS_IDS_KEY, atendimento.getId());
+        registroMetricas.atendimentoCriado(atendimento.getTime());
 
         log.info("Atendimento criado no Redis: ID={}, Cliente={}, Time={}",
                 atendimento.getId(), atendimento.getNomeCliente(), atendimento.getTime());
@@ -60,9 +70,21 @@ public class RedisAtendimentoService implements AtendimentoService {
 
     @Override
     public Optional<Atendimento> buscarPorId(Long id) {
-        String key = getAtendimentoKey(id);
-        Object obj = redisTemplate.opsForValue().get(key);
+        Optional<Atendimento> pendente = pendente(id);
+        if (pendente.isPresent()) {
+            return pendente;
+        }
+        return converter(redisTemplate.opsForValue().get(getAtendimentoKey(id)));
+    }
 
+    /**
+     * Estado alterado por esta instância e ainda não gravado (escrita adiada), se houver.
+     */
+    private Optional<Atendimento> pendente(Long id) {
+        return escritaAdiada != null ? escritaAdiada.atendimentoPendente(id) : Optional.empty();
+    }
+
+    private Optional<Atendimento> converter(Object obj) {
         if (obj == null) {
             return Optional.empty();
         }
@@ -151,6 +173,18 @@ public class RedisAtendimentoService implements AtendimentoService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public void persistir(Atendimento atendimento) {
+        if (escritaAdiada != null) {
+            escritaAdiada.atendimento(atendimento);
+        } else {
+            redisTemplate.opsForValue().set(getAtendimentoKey(atendimento.getId()), atendimento);
+        }
+
+        log.debug("Atendimento {} atualizado no Redis: status={}",
+                atendimento.getId(), atendimento.getStatus());
+    }
+
     @Override
     public List<Atendimento> listarTodos() {
         Set<Object> ids = redisTemplate.opsForSet().members(ATENDIMENTOS_IDS_KEY);
@@ -159,10 +193,16 @@ public class RedisAtendimentoService implements AtendimentoService {
             return new ArrayList<>();
         }
 
-        List<Atendimento> atendimentos = new ArrayList<>();
-        for (Object idObj : ids) {
-            Long id = ((Number) idObj).longValue();
-            buscarPorId(id).ifPresent(atendimentos::add);
+        List<String> keys = ids.stream()
+                .map(idObj -> getAtendimentoKey(((Number) idObj).longValue()))
+                .toList();
+
+        // MGET em blocos em vez de um GET por atendimento
+        List<Atendimento> atendimentos = new ArrayList<>(keys.size());
+        for (Object obj : carregadorLote.carregarValores(keys)) {
+            converter(obj)
+                    .map(atendimento -> pendente(atendimento.getId()).orElse(atendimento))
+                    .ifPresent(atendimentos::add);
         }
 
         return atendimentos;
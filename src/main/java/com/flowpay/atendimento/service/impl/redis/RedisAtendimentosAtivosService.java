@@ -0,0 +1,198 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendimentosAtivosService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Atendimentos em andamento compartilhados entre as instâncias.
+ *
+ * O hash atendimentos:ativos guarda, por ID, o atendimento como estava na atribuição;
+ * o set atendimentos:ativos:{TIME} guarda os IDs de cada time. Busca e remoção por ID
+ * são um HGET/HDEL, sem listar nada.
+ *
+ * No modo redis-lua os scripts de distribuição e finalização mantêm as mesmas chaves,
+ * no mesmo formato, dentro da própria execução atômica.
+ *
+ * A remoção usa o retorno do HDEL para decidir quem finaliza: se duas instâncias
+ * recebem o mesmo PATCH de finalização, só a que removeu o campo libera o atendente.
+ *
+ * Com a escrita adiada habilitada, o registro entra no buffer do EscritaAdiadaRedis e é
+ * gravado no mesmo pipeline dos atendimentos. Busca, listagem e remoção consultam o buffer
+ * antes do Redis; um registro removido antes de gravado é cancelado no buffer.
+ */
+@Service
+@Profile("redis")
+@Slf4j
+public class RedisAtendimentosAtivosService implements AtendimentosAtivosService {
+
+    static final String ATIVOS_KEY = "atendimentos:ativos";
+    static final String ATIVOS_TIME_PREFIX = "atendimentos:ativos:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Escrita adiada - só existe com flowpay.redis.escrita-adiada.habilitada=true
+    @Autowired(required = false)
+    private EscritaAdiadaRedis escritaAdiada;
+
+    public RedisAtendimentosAtivosService(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+
+        // Mesmo formato usado pelo RedisConfig para gravar os atendimentos
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    static String getAtivosTimeKey(Time time) {
+        return ATIVOS_TIME_PREFIX + time.name();
+    }
+
+    @Override
+    public void registrar(Atendimento atendimento) {
+        if (escritaAdiada != null) {
+            escritaAdiada.ativo(atendimento);
+            return;
+        }
+        redisTemplate.opsForHash().put(ATIVOS_KEY, atendimento.getId().toString(), atendimento);
+        redisTemplate.opsForSet().add(getAtivosTimeKey(atendimento.getTime()), atendimento.getId());
+    }
+
+    @Override
+    public Optional<Atendimento> remover(Long atendimentoId) {
+        if (atendimentoId == null) {
+            return Optional.empty();
+        }
+
+        if (escritaAdiada != null) {
+            Optional<Atendimento> cancelado = escritaAdiada.cancelarAtivo(atendimentoId);
+            if (cancelado.isPresent()) {
+                return cancelado;
+            }
+        }
+
+        String campo = atendimentoId.toString();
+        Object valor = redisTemplate.opsForHash().get(ATIVOS_KEY, campo);
+
+        if (valor == null) {
+            return Optional.empty();
+        }
+
+        Long removidos = redisTemplate.opsForHash().delete(ATIVOS_KEY, campo);
+        if (removidos == null || removidos == 0) {
+            log.debug("Atendimento {} já removido dos ativos por outra instância", atendimentoId);
+            return Optional.empty();
+        }
+
+        Atendimento atendimento = converter(valor);
+        redisTemplate.opsForSet().remove(getAtivosTimeKey(atendimento.getTime()), atendimentoId);
+
+        return Optional.of(atendimento);
+    }
+
+    @Override
+    public Optional<Atendimento> buscar(Long atendimentoId) {
+        if (atendimentoId == null) {
+            return Optional.empty();
+        }
+
+        if (escritaAdiada != null) {
+            Optional<Atendimento> pendente = escritaAdiada.ativoPendente(atendimentoId);
+            if (pendente.isPresent()) {
+                return pendente;
+            }
+        }
+
+        Object valor = redisTemplate.opsForHash().get(ATIVOS_KEY, atendimentoId.toString());
+        return Optional.ofNullable(valor).map(this::converter);
+    }
+
+    @Override
+    public List<Atendimento> listar() {
+        List<Atendimento> pendentes = ativosPendentes(null);
+        return comPendentes(converterTodos(redisTemplate.opsForHash().values(ATIVOS_KEY)), pendentes);
+    }
+
+    @Override
+    public List<Atendimento> listarPorTime(Time time) {
+        List<Atendimento> pendentes = ativosPendentes(time);
+        Set<Object> ids = redisTemplate.opsForSet().members(getAtivosTimeKey(time));
+
+        if (ids == null || ids.isEmpty()) {
+            return pendentes;
+        }
+
+        List<Object> campos = ids.stream()
+                .map(id -> (Object) String.valueOf(((Number) id).longValue()))
+                .toList();
+
+        // Um único HMGET para o time inteiro
+        return comPendentes(converterTodos(redisTemplate.opsForHash().multiGet(ATIVOS_KEY, campos)), pendentes);
+    }
+
+    /**
+     * Registros ainda no buffer da escrita adiada (do time, se informado). São lidos antes
+     * do Redis: um registro gravado entre as duas leituras aparece nas duas, nunca em nenhuma.
+     */
+    private List<Atendimento> ativosPendentes(Time time) {
+        if (escritaAdiada == null) {
+            return List.of();
+        }
+        return escritaAdiada.ativosPendentes().stream()
+                .filter(a -> time == null || a.getTime() == time)
+                .toList();
+    }
+
+    private static List<Atendimento> comPendentes(List<Atendimento> gravados, List<Atendimento> pendentes) {
+        if (pendentes.isEmpty()) {
+            return gravados;
+        }
+
+        Map<Long, Atendimento> porId = new LinkedHashMap<>();
+        for (Atendimento atendimento : gravados) {
+            porId.put(atendimento.getId(), atendimento);
+        }
+        for (Atendimento atendimento : pendentes) {
+            porId.put(atendimento.getId(), atendimento);
+        }
+        return new ArrayList<>(porId.values());
+    }
+
+    private List<Atendimento> converterTodos(List<Object> valores) {
+        if (valores == null) {
+            return List.of();
+        }
+
+        List<Atendimento> atendimentos = new ArrayList<>(valores.size());
+        for (Object valor : valores) {
+            if (valor != null) {
+                atendimentos.add(converter(valor));
+            }
+        }
+        return atendimentos;
+    }
+
+    private Atendimento converter(Object valor) {
+        if (valor instanceof Atendimento atendimento) {
+            return atendimento;
+        }
+        // O serializer sem tipagem devolve um LinkedHashMap
+        return objectMapper.convertValue(valor, Atendimento.class);
+    }
+}
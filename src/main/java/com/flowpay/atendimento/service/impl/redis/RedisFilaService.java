@@ -6,6 +6,7 @@ import com.flowpay.atendimento.model.Time;
 import com.flowpay.atendimento.service.FilaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -14,7 +15,19 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Filas por time no Redis (lista fila:{TIME}).
+ *
+ * A lista guarda apenas o ID de cada atendimento; o registro canônico continua em
+ * atendimento:{id}. Ao retirar ou listar, os atendimentos são carregados em lote
+ * (MGET via CarregadorLoteRedis), então a fila nunca devolve uma cópia desatualizada.
+ *
+ * Listas gravadas antes desta mudança têm o atendimento inteiro em cada item; esses
+ * itens continuam aceitos e também são carregados pelo registro canônico (a cópia da
+ * fila só é usada se o registro não existir mais).
+ */
 @Service
 @Profile("redis")
 @RequiredArgsConstructor
@@ -22,7 +35,14 @@ import java.util.Map;
 public class RedisFilaService implements FilaService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final CarregadorLoteRedis carregadorLote;
+
+    // Escrita adiada - só existe com flowpay.redis.escrita-adiada.habilitada=true
+    @Autowired(required = false)
+    private EscritaAdiadaRedis escritaAdiada;
+
     private static final String FILA_PREFIX = "fila:";
+    private static final String ATENDIMENTO_PREFIX = "atendimento:";
 
     private String getFilaKey(Time time) {
         return FILA_PREFIX + time.name();
@@ -38,7 +58,7 @@ public class RedisFilaService implements FilaService {
         String key = getFilaKey(atendimento.getTime());
         log.info("Enfileirando no Redis: key={}, atendimentoId={}", key, atendimento.getId());
 
-        redisTemplate.opsForList().rightPush(key, atendimento);
+        redisTemplate.opsForList().rightPush(key, atendimento.getId());
 
         log.debug("Fila Redis '{}' agora tem {} itens", key, redisTemplate.opsForList().size(key));
     }
@@ -49,7 +69,8 @@ public class RedisFilaService implements FilaService {
         Object obj = redisTemplate.opsForList().leftPop(key);
 
         if (obj != null) {
-            Atendimento atendimento = convertToAtendimento(obj);
+            List<Atendimento> carregados = carregar(List.of(obj));
+            Atendimento atendimento = carregados.isEmpty() ? null : carregados.get(0);
             if (atendimento != null) {
                 log.info("Desenfileirado do Redis: key={}, atendimentoId={}", key, atendimento.getId());
                 return atendimento;
@@ -64,27 +85,39 @@ public class RedisFilaService implements FilaService {
     }
 
     @Override
-    public List<Atendimento> listarFila(Time time) {
+    public List<Atendimento> desenfileirarLote(Time time, int quantidade) {
+        if (quantidade <= 0) {
+            return new ArrayList<>();
+        }
+
         String key = getFilaKey(time);
-        List<Object> objects = redisTemplate.opsForList().range(key, 0, -1);
+        // LPOP com count: um único round trip para o lote inteiro
+        List<Object> objects = redisTemplate.opsForList().leftPop(key, quantidade);
 
         if (objects == null || objects.isEmpty()) {
+            log.debug("Fila Redis '{}' está vazia", key);
             return new ArrayList<>();
         }
 
-        List<Atendimento> atendimentos = new ArrayList<>();
-        for (Object obj : objects) {
-            Atendimento atendimento = convertToAtendimento(obj);
-            if (atendimento != null) {
-                atendimentos.add(atendimento);
-            } else {
-                log.warn("Objeto inválido na fila do Redis foi ignorado");
-            }
-        }
+        List<Atendimento> atendimentos = carregar(objects);
+
+        log.info("Desenfileirados {} atendimento(s) em lote do Redis: key={}", atendimentos.size(), key);
 
         return atendimentos;
     }
 
+    @Override
+    public List<Atendimento> listarFila(Time time) {
+        String key = getFilaKey(time);
+        List<Object> objects = redisTemplate.opsForList().range(key, 0, -1);
+
+        if (objects == null || objects.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return carregar(objects);
+    }
+
     @Override
     public int tamanhoFila(Time time) {
         String key = getFilaKey(time);
@@ -100,6 +133,57 @@ public class RedisFilaService implements FilaService {
         log.info("Fila Redis '{}' limpa. Removidos {} atendimentos", key, tamanho);
     }
 
+    /**
+     * Carrega os atendimentos dos itens da fila (IDs ou, em listas antigas, cópias
+     * completas) com MGET em lote, preservando a ordem da fila.
+     */
+    private List<Atendimento> carregar(List<Object> itens) {
+        List<Long> ids = new ArrayList<>(itens.size());
+        List<Atendimento> copias = new ArrayList<>(itens.size());
+
+        for (Object item : itens) {
+            if (item instanceof Number id) {
+                ids.add(id.longValue());
+                copias.add(null);
+                continue;
+            }
+
+            Atendimento copia = convertToAtendimento(item);
+            if (copia == null || copia.getId() == null) {
+                log.warn("Objeto inválido na fila do Redis foi ignorado");
+                continue;
+            }
+            ids.add(copia.getId());
+            copias.add(copia);
+        }
+
+        List<Object> valores = carregadorLote.carregarValores(
+                ids.stream().map(id -> ATENDIMENTO_PREFIX + id).toList());
+
+        List<Atendimento> atendimentos = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Atendimento atendimento = pendente(ids.get(i)).orElse(null);
+            if (atendimento == null) {
+                atendimento = convertToAtendimento(valores.get(i));
+            }
+            if (atendimento == null) {
+                atendimento = copias.get(i);
+            }
+
+            if (atendimento != null) {
+                atendimentos.add(atendimento);
+            } else {
+                log.error("Atendimento {} da fila não encontrado no Redis", ids.get(i));
+            }
+        }
+
+        return atendimentos;
+    }
+
+    private Optional<Atendimento> pendente(Long id) {
+        return escritaAdiada != null ? escritaAdiada.atendimentoPendente(id) : Optional.empty();
+    }
+
     /**
      * Converte objeto do Redis para Atendimento.
      * Lida com deserialização tanto de objetos Atendimento diretos quanto LinkedHashMap.
@@ -0,0 +1,209 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.DistribuidorService;
+import com.flowpay.atendimento.service.NotificacaoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distribuidor que executa cada transição de estado em um único script Lua no Redis.
+ *
+ * Retirar da fila, escolher o atendente de menor carga, incrementar seu contador e
+ * gravar o atendimento atualizado acontecem em um só EVALSHA, de forma atômica
+ * entre todas as instâncias. A finalização também é um único script.
+ * O atendente é escolhido pelo índice atendentes:disponiveis:{TIME} (IndiceDisponibilidadeRedis),
+ * que os scripts mantêm atualizado junto com o contador. Os contadores do dashboard
+ * (RedisRegistroMetricas) e o registro de atendimentos em andamento
+ * (RedisAtendimentosAtivosService) também são atualizados dentro dos scripts.
+ *
+ * Ativado com flowpay.distribuicao.modo=redis-lua no profile redis.
+ * Os scripts acessam chaves de atendentes calculadas em tempo de execução, então
+ * exigem um Redis standalone (ou réplica), não Redis Cluster.
+ */
+@Service
+@Primary
+@Profile("redis")
+@ConditionalOnProperty(name = "flowpay.distribuicao.modo", havingValue = "redis-lua")
+@Slf4j
+public class RedisLuaDistribuidorService implements DistribuidorService {
+
+    private static final String ATENDENTE_PREFIX = "atendente:";
+    private static final String ATENDIMENTO_PREFIX = "atendimento:";
+    private static final String FILA_PREFIX = "fila:";
+
+    private static final RedisSerializer<String> STRING = RedisSerializer.string();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final NotificacaoService notificacaoService;
+    private final int limiteLote;
+    private final ObjectMapper objectMapper;
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> scriptDistribuir = carregarScript("redis/distribuir.lua");
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> scriptProcessarFila = carregarScript("redis/processar_fila.lua");
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> scriptFinalizar = carregarScript("redis/finalizar.lua");
+
+    public RedisLuaDistribuidorService(
+            RedisTemplate<String, Object> redisTemplate,
+            NotificacaoService notificacaoService,
+            @Value("${flowpay.distribuicao.redis-lua.limite-lote:100}") int limiteLote) {
+        this.redisTemplate = redisTemplate;
+        this.notificacaoService = notificacaoService;
+        this.limiteLote = limiteLote;
+
+        // Mesmo formato usado pelo RedisConfig para gravar os atendimentos
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public void distribuir(Atendimento atendimento) {
+        if (atendimento == null) {
+            log.warn("Tentativa de distribuir atendimento null");
+            return;
+        }
+
+        List<String> resultado = executar(scriptDistribuir,
+                List.of(ATENDIMENTO_PREFIX + atendimento.getId(),
+                        FILA_PREFIX + atendimento.getTime().name(),
+                        IndiceDisponibilidadeRedis.getDisponiveisKey(atendimento.getTime()),
+                        RedisRegistroMetricas.getMetricasKey(atendimento.getTime()),
+                        RedisAtendimentosAtivosService.ATIVOS_KEY,
+                        RedisAtendimentosAtivosService.getAtivosTimeKey(atendimento.getTime())),
+                String.valueOf(Atendente.MAX_ATENDIMENTOS),
+                LocalDateTime.now().toString(),
+                ATENDENTE_PREFIX);
+
+        switch (resultado.get(0)) {
+            case "ATRIBUIDO" -> {
+                Atendimento atualizado = lerAtendimento(resultado.get(1));
+                copiarDistribuicao(atualizado, atendimento);
+
+                log.info("👤 [Lua] Atendimento {} atribuído ao atendente {} (Time: {})",
+                        atendimento.getId(), atendimento.getAtendenteId(), atendimento.getTime());
+
+                notificacaoService.notificarNovoAtendimento(atendimento);
+            }
+            case "ENFILEIRADO" -> {
+                log.warn("⚠️  [Lua] Nenhum atendente disponível no time {}. Atendimento ID {} enfileirado (fila: {})",
+                        atendimento.getTime(), atendimento.getId(), resultado.get(1));
+
+                notificacaoService.notificarAtualizacaoFila(atendimento.getTime());
+            }
+            default -> log.warn("⚠️  [Lua] Atendimento {} não encontrado no Redis para distribuição",
+                    atendimento.getId());
+        }
+    }
+
+    @Override
+    public void finalizarAtendimento(Long atendimentoId) {
+        List<String> resultado = executar(scriptFinalizar,
+                List.of(ATENDIMENTO_PREFIX + atendimentoId, RedisAtendimentosAtivosService.ATIVOS_KEY),
+                LocalDateTime.now().toString(),
+                ATENDENTE_PREFIX,
+                IndiceDisponibilidadeRedis.DISPONIVEIS_PREFIX,
+                RedisRegistroMetricas.METRICAS_PREFIX,
+                RedisAtendimentosAtivosService.ATIVOS_TIME_PREFIX);
+
+        if (!"FINALIZADO".equals(resultado.get(0))) {
+            log.warn("⚠️  [Lua] Tentativa de finalizar atendimento inexistente ou já finalizado: ID {}",
+                    atendimentoId);
+            return;
+        }
+
+        Atendimento atendimento = lerAtendimento(resultado.get(1));
+
+        log.info("🏁 [Lua] Atendimento {} finalizado. Atendente {} liberado",
+                atendimento.getId(), atendimento.getAtendenteId());
+
+        notificacaoService.notificarAtendimentoFinalizado(atendimento);
+
+        processarFila(atendimento.getTime());
+    }
+
+    @Override
+    public void processarFila(Time time) {
+        List<String> resultado = executar(scriptProcessarFila,
+                List.of(FILA_PREFIX + time.name(),
+                        IndiceDisponibilidadeRedis.getDisponiveisKey(time),
+                        RedisRegistroMetricas.getMetricasKey(time),
+                        RedisAtendimentosAtivosService.ATIVOS_KEY,
+                        RedisAtendimentosAtivosService.getAtivosTimeKey(time)),
+                String.valueOf(Atendente.MAX_ATENDIMENTOS),
+                LocalDateTime.now().toString(),
+                ATENDENTE_PREFIX,
+                ATENDIMENTO_PREFIX,
+                String.valueOf(limiteLote));
+
+        // Primeiro elemento: quantos atendentes ficaram lotados; depois, os atendimentos distribuídos
+        List<String> distribuidos = resultado.isEmpty() ? List.of() : resultado.subList(1, resultado.size());
+
+        if (distribuidos.isEmpty()) {
+            log.debug("[Lua] Nada a distribuir da fila do time {}", time);
+            return;
+        }
+
+        List<Atendimento> atendimentos = new ArrayList<>(distribuidos.size());
+        for (String json : distribuidos) {
+            atendimentos.add(lerAtendimento(json));
+        }
+
+        log.info("📊 [Lua] Fila do time {}: {} atendimento(s) distribuído(s)", time, atendimentos.size());
+
+        notificacaoService.notificarAtendimentosDistribuidos(time, atendimentos);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<String> executar(DefaultRedisScript<List> script, List<String> keys, String... args) {
+        List<String> resultado = redisTemplate.execute(script, STRING, (RedisSerializer) STRING, keys, (Object[]) args);
+        return resultado != null ? resultado : List.of();
+    }
+
+    private Atendimento lerAtendimento(String json) {
+        try {
+            return objectMapper.readValue(json, Atendimento.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao converter atendimento retornado pelo script Lua", e);
+        }
+    }
+
+    /**
+     * Reflete no objeto recebido do chamador o resultado gravado pelo script.
+     */
+    private void copiarDistribuicao(Atendimento origem, Atendimento destino) {
+        destino.setAtendenteId(origem.getAtendenteId());
+        destino.setStatus(origem.getStatus());
+        destino.setDataHoraAtendimento(origem.getDataHoraAtendimento());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static DefaultRedisScript<List> carregarScript(String caminho) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(caminho));
+        script.setResultType(List.class);
+        return script;
+    }
+}
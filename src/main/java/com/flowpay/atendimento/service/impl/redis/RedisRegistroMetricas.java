@@ -0,0 +1,203 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendenteService;
+import com.flowpay.atendimento.service.AtendimentosAtivosService;
+import com.flowpay.atendimento.service.FilaService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores do dashboard no Redis, compartilhados entre as instâncias.
+ *
+ * Cada time tem um hash metricas:{TIME} com os campos ativos, fila, atendentes e lotados,
+ * ajustados com HINCRBY a cada transição: aqui, nos caminhos escritos em Java, e dentro
+ * dos próprios scripts Lua (distribuição, fila, finalização, reserva e liberação de vaga),
+ * que chamam HINCRBY na mesma execução atômica. Ler um time é um único HMGET; ler todos
+ * é um HMGET por time em um só pipeline.
+ *
+ * Só as contagens exibidas no dashboard ficam no Redis: a criação de um atendimento e as
+ * transições que não envolvem EM_ATENDIMENTO não custam ida ao Redis.
+ *
+ * Bases gravadas antes dos contadores não têm o hash: na inicialização, o hash de um
+ * time que ainda não existe é montado a partir do estado atual (HSETNX por campo).
+ */
+@Component
+@Profile("redis")
+@Slf4j
+public class RedisRegistroMetricas implements RegistroMetricas {
+
+    static final String METRICAS_PREFIX = "metricas:";
+
+    static final String CAMPO_ATIVOS = "ativos";
+    static final String CAMPO_FILA = "fila";
+    static final String CAMPO_ATENDENTES = "atendentes";
+    static final String CAMPO_LOTADOS = "lotados";
+
+    // Ordem dos valores retornados pelo HMGET
+    private static final List<Object> CAMPOS = List.of(CAMPO_ATIVOS, CAMPO_FILA, CAMPO_ATENDENTES, CAMPO_LOTADOS);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AtendenteService atendenteService;
+    private final AtendimentosAtivosService atendimentosAtivos;
+    private final FilaService filaService;
+
+    public RedisRegistroMetricas(
+            StringRedisTemplate stringRedisTemplate,
+            @Lazy AtendenteService atendenteService,
+            @Lazy AtendimentosAtivosService atendimentosAtivos,
+            @Lazy FilaService filaService) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.atendenteService = atendenteService;
+        this.atendimentosAtivos = atendimentosAtivos;
+        this.filaService = filaService;
+    }
+
+    static String getMetricasKey(Time time) {
+        return METRICAS_PREFIX + time.name();
+    }
+
+    /**
+     * Monta o hash dos times que ainda não o têm a partir do estado atual do storage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarEstadoInicial() {
+        List<Atendente> todos = null;
+
+        for (Time time : Time.values()) {
+            String key = getMetricasKey(time);
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+                continue;
+            }
+
+            if (todos == null) {
+                todos = atendenteService.listarTodos();
+            }
+            List<Atendente> doTime = todos.stream().filter(a -> a.getTime() == time).toList();
+            long lotados = doTime.stream().filter(a -> !a.isDisponivel()).count();
+
+            // HSETNX: um campo já criado por outra instância nesse meio tempo prevalece
+            stringRedisTemplate.opsForHash().putIfAbsent(key, CAMPO_ATIVOS,
+                    String.valueOf(atendimentosAtivos.listarPorTime(time).size()));
+            stringRedisTemplate.opsForHash().putIfAbsent(key, CAMPO_FILA,
+                    String.valueOf(filaService.tamanhoFila(time)));
+            stringRedisTemplate.opsForHash().putIfAbsent(key, CAMPO_ATENDENTES, String.valueOf(doTime.size()));
+            stringRedisTemplate.opsForHash().putIfAbsent(key, CAMPO_LOTADOS, String.valueOf(lotados));
+
+            log.info("Métricas do time {} montadas no Redis a partir do estado atual", time);
+        }
+
+        Contagens contagens = contagens();
+        log.info("Métricas no Redis: ativos={}, fila={}, atendentes={}/{}",
+                contagens.totalAtendimentosAtivos(), contagens.totalNaFila(),
+                contagens.atendentesDisponiveis(), contagens.totalAtendentes());
+    }
+
+    // ===== Transições =====
+
+    @Override
+    public void atendimentoCriado(Time time) {
+        // Atendimentos aguardando não são exibidos; a fila é contada ao enfileirar
+    }
+
+    @Override
+    public void statusAlterado(Time time, StatusAtendimento anterior, StatusAtendimento atual) {
+        int delta = (atual == StatusAtendimento.EM_ATENDIMENTO ? 1 : 0)
+                - (anterior == StatusAtendimento.EM_ATENDIMENTO ? 1 : 0);
+        if (delta != 0) {
+            incrementar(time, CAMPO_ATIVOS, delta);
+        }
+    }
+
+    @Override
+    public void enfileirado(Time time) {
+        incrementar(time, CAMPO_FILA, 1);
+    }
+
+    @Override
+    public void desenfileirados(Time time, int quantidade) {
+        if (quantidade != 0) {
+            incrementar(time, CAMPO_FILA, -quantidade);
+        }
+    }
+
+    @Override
+    public void atendenteCadastrado(Time time) {
+        incrementar(time, CAMPO_ATENDENTES, 1);
+    }
+
+    @Override
+    public void atendenteRemovido(Time time, boolean lotado) {
+        incrementar(time, CAMPO_ATENDENTES, -1);
+        if (lotado) {
+            incrementar(time, CAMPO_LOTADOS, -1);
+        }
+    }
+
+    @Override
+    public void disponibilidadeAlterada(Time time, boolean disponivel) {
+        incrementar(time, CAMPO_LOTADOS, disponivel ? -1 : 1);
+    }
+
+    private void incrementar(Time time, String campo, long delta) {
+        stringRedisTemplate.opsForHash().increment(getMetricasKey(time), campo, delta);
+    }
+
+    // ===== Leituras O(times) =====
+
+    @Override
+    public Contagem contagem(Time time) {
+        return converter(stringRedisTemplate.opsForHash().multiGet(getMetricasKey(time), CAMPOS));
+    }
+
+    @Override
+    public Contagens contagens() {
+        Time[] times = Time.values();
+
+        List<Object> resultados = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Time time : times) {
+                    ops.opsForHash().multiGet(getMetricasKey(time), CAMPOS);
+                }
+                return null;
+            }
+        });
+
+        Map<Time, Contagem> porTime = new EnumMap<>(Time.class);
+        for (int i = 0; i < times.length; i++) {
+            porTime.put(times[i], converter((List<?>) resultados.get(i)));
+        }
+        return new Contagens(porTime);
+    }
+
+    private static Contagem converter(List<?> valores) {
+        return new Contagem(
+                valor(valores, 0),
+                Math.max(0, valor(valores, 1)),
+                valor(valores, 2),
+                valor(valores, 3));
+    }
+
+    private static int valor(List<?> valores, int indice) {
+        Object valor = valores.get(indice);
+        return valor != null ? Integer.parseInt(valor.toString()) : 0;
+    }
+}
@@ -0,0 +1,239 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.service.impl.PublicadorMensagens;
+import com.flowpay.atendimento.service.impl.RegistroAssinaturas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Relay das notificações WebSocket entre instâncias pelo pub/sub do Redis.
+ *
+ * O broker STOMP é em memória, então cada instância só alcança as próprias sessões.
+ * Após a entrega local, o NotificacaoServiceImpl repassa o JSON já codificado por aqui:
+ * uma única publicação no canal websocket:eventos por evento, com os destinos que têm
+ * assinantes em outras instâncias. Cada instância reenvia o payload às suas sessões,
+ * ignorando as próprias publicações. O pub/sub não reentrega mensagens, então não há
+ * repetições a descartar; a ordem de publicação é mantida porque o container de listeners
+ * do RedisConfig entrega as mensagens uma de cada vez.
+ *
+ * Para não publicar eventos que ninguém vai receber, cada instância grava periodicamente
+ * os destinos assinados localmente em websocket:assinaturas:{instancia} (com TTL) e se
+ * registra em websocket:instancias, um sorted set com o horário da última sincronização.
+ * A união dos destinos das demais instâncias vai para o RegistroAssinaturas.
+ *
+ * Métricas e deltas do dashboard não passam pelo relay: os contadores ficam no Redis, em um
+ * hash metricas:{TIME} compartilhado (RedisRegistroMetricas), e cada instância os lê no
+ * próprio tick e publica às suas sessões, com a sua época de deltas.
+ */
+@Component
+@Profile("redis")
+@ConditionalOnProperty(name = "flowpay.websocket.relay.habilitado", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RelayClusterRedis implements MessageListener {
+
+    static final String CANAL = "websocket:eventos";
+    static final String INSTANCIAS_KEY = "websocket:instancias";
+    private static final String ASSINATURAS_PREFIX = "websocket:assinaturas:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final PublicadorMensagens publicadorMensagens;
+    private final RegistroAssinaturas registroAssinaturas;
+    private final JsonMapper jsonMapper;
+    private final Duration validadeAssinaturas;
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    private final Counter publicados;
+    private final Counter repassados;
+
+    public RelayClusterRedis(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            PublicadorMensagens publicadorMensagens,
+            RegistroAssinaturas registroAssinaturas,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${flowpay.websocket.relay.sincronizacao-ms:1000}") long sincronizacaoMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.publicadorMensagens = publicadorMensagens;
+        this.registroAssinaturas = registroAssinaturas;
+        this.jsonMapper = jsonMapper;
+        // Três sincronizações perdidas e a instância é considerada fora do ar
+        this.validadeAssinaturas = Duration.ofMillis(sincronizacaoMs * 3);
+
+        this.publicados = Counter.builder("flowpay.websocket.relay.publicados")
+                .description("Eventos publicados no relay para outras instâncias")
+                .register(meterRegistry);
+        this.repassados = Counter.builder("flowpay.websocket.relay.repassados")
+                .description("Eventos de outras instâncias repassados às sessões locais")
+                .register(meterRegistry);
+    }
+
+    static String getAssinaturasKey(String instancia) {
+        return ASSINATURAS_PREFIX + instancia;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CANAL));
+        log.info("[WS] Relay entre instâncias ativo: instância {}", instancia);
+    }
+
+    /**
+     * Repassa às outras instâncias um JSON já entregue localmente. Só publica se algum
+     * dos destinos tem assinantes em outra instância.
+     */
+    public void publicar(byte[] json, String... destinos) {
+        List<String> remotos = new ArrayList<>(destinos.length);
+        for (String destino : destinos) {
+            if (registroAssinaturas.temAssinanteRemoto(destino)) {
+                remotos.add(destino);
+            }
+        }
+
+        if (remotos.isEmpty()) {
+            return;
+        }
+
+        Evento evento = new Evento(instancia, remotos,
+                new String(json, StandardCharsets.UTF_8));
+
+        try {
+            stringRedisTemplate.convertAndSend(CANAL, jsonMapper.writeValueAsString(evento));
+            publicados.increment();
+        } catch (DataAccessException e) {
+            // A entrega local já aconteceu; a falha do relay não desfaz a operação
+            log.warn("[WS] Falha ao publicar evento no relay: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Evento evento;
+        try {
+            evento = jsonMapper.readValue(message.getBody(), Evento.class);
+        } catch (JacksonException e) {
+            log.warn("[WS] Evento do relay ignorado: {}", e.getMessage());
+            return;
+        }
+
+        if (instancia.equals(evento.origem())) {
+            return;
+        }
+
+        publicadorMensagens.enviar(evento.payload().getBytes(StandardCharsets.UTF_8),
+                evento.destinos().toArray(String[]::new));
+        repassados.increment();
+    }
+
+    /**
+     * Grava os destinos assinados nesta instância e lê os das demais.
+     */
+    @Scheduled(fixedDelayString = "${flowpay.websocket.relay.sincronizacao-ms:1000}")
+    void sincronizarAssinaturas() {
+        try {
+            gravarAssinaturasLocais();
+            registroAssinaturas.atualizarRemotos(lerAssinaturasRemotas());
+        } catch (DataAccessException e) {
+            log.warn("[WS] Falha ao sincronizar assinaturas do relay: {}", e.getMessage());
+        }
+    }
+
+    private void gravarAssinaturasLocais() {
+        String chave = getAssinaturasKey(instancia);
+        Set<String> locais = registroAssinaturas.destinosLocais();
+        long agora = System.currentTimeMillis();
+
+        // MULTI/EXEC: as outras instâncias nunca leem o set pela metade
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Object> execute(RedisOperations operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                ops.delete(chave);
+                if (!locais.isEmpty()) {
+                    ops.opsForSet().add(chave, locais.toArray(String[]::new));
+                    ops.expire(chave, validadeAssinaturas);
+                }
+                ops.opsForZSet().add(INSTANCIAS_KEY, instancia, agora);
+                ops.opsForZSet().removeRangeByScore(INSTANCIAS_KEY, 0, agora - validadeAssinaturas.toMillis());
+                return ops.exec();
+            }
+        });
+    }
+
+    private Set<String> lerAssinaturasRemotas() {
+        Set<String> instancias = stringRedisTemplate.opsForZSet().range(INSTANCIAS_KEY, 0, -1);
+        if (instancias == null) {
+            return Set.of();
+        }
+
+        List<String> outras = instancias.stream()
+                .filter(outra -> !instancia.equals(outra))
+                .toList();
+        if (outras.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Object> membros = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                outras.forEach(outra -> ops.opsForSet().members(getAssinaturasKey(outra)));
+                return null;
+            }
+        });
+
+        Set<String> remotos = new HashSet<>();
+        for (Object destinos : membros) {
+            if (destinos instanceof Set<?> set) {
+                set.forEach(destino -> remotos.add((String) destino));
+            }
+        }
+        return remotos;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        listenerContainer.removeMessageListener(this);
+        try {
+            stringRedisTemplate.delete(getAssinaturasKey(instancia));
+            stringRedisTemplate.opsForZSet().remove(INSTANCIAS_KEY, instancia);
+        } catch (DataAccessException e) {
+            log.debug("[WS] Registro da instância não removido do relay: {}", e.getMessage());
+        }
+    }
+
+    record Evento(String origem, List<String> destinos, String payload) {
+    }
+}
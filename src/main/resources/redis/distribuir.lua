@@ -0,0 +1,73 @@
+-- Distribui um atendimento já salvo para o atendente de menor carga do time,
+-- ou o enfileira se todos estiverem lotados. Executa atomicamente no Redis.
+--
+-- KEYS[1] atendimento:{id}
+-- KEYS[2] fila:{TIME} (lista de IDs)
+-- KEYS[3] atendentes:disponiveis:{TIME} (sorted set: score = atendimentos ativos)
+-- KEYS[4] metricas:{TIME} (contadores do dashboard: ativos, fila, lotados)
+-- KEYS[5] atendimentos:ativos (hash ID -> atendimento em andamento)
+-- KEYS[6] atendimentos:ativos:{TIME} (set com os IDs em andamento do time)
+-- ARGV[1] máximo de atendimentos por atendente
+-- ARGV[2] data/hora do atendimento (ISO-8601)
+-- ARGV[3] prefixo das chaves de atendente (atendente:)
+--
+-- Retorno: {'ATRIBUIDO', atendimentoJson, lotou ('1'/'0')} ou {'ENFILEIRADO', tamanhoFila} ou {'INEXISTENTE'}
+
+-- Atendente de menor carga com vaga. Entradas desatualizadas do índice (atendente lotado
+-- ou inexistente) são removidas, como em reservar_vagas.lua.
+local function escolherAtendente(indice, prefixoAtendente, maximo)
+    while true do
+        local escolhido = redis.call('ZRANGE', indice, 0, 0)[1]
+        if not escolhido then
+            return nil
+        end
+
+        local carga = tonumber(redis.call('HGET', prefixoAtendente .. escolhido, 'atendimentosAtivos'))
+        if carga and carga < maximo then
+            return escolhido
+        end
+        redis.call('ZREM', indice, escolhido)
+    end
+end
+
+local atendimentoJson = redis.call('GET', KEYS[1])
+if not atendimentoJson then
+    return {'INEXISTENTE'}
+end
+
+local maximo = tonumber(ARGV[1])
+local atendimento = cjson.decode(atendimentoJson)
+
+local escolhido = escolherAtendente(KEYS[3], ARGV[3], maximo)
+
+if not escolhido then
+    atendimento['status'] = 'AGUARDANDO_ATENDIMENTO'
+    atendimentoJson = cjson.encode(atendimento)
+    redis.call('SET', KEYS[1], atendimentoJson)
+    local tamanho = redis.call('RPUSH', KEYS[2], string.format('%d', atendimento['id']))
+    redis.call('HINCRBY', KEYS[4], 'fila', 1)
+    return {'ENFILEIRADO', tostring(tamanho)}
+end
+
+local lotou = '0'
+local carga = redis.call('HINCRBY', ARGV[3] .. escolhido, 'atendimentosAtivos', 1)
+if carga >= maximo then
+    redis.call('ZREM', KEYS[3], escolhido)
+    redis.call('HINCRBY', KEYS[4], 'lotados', 1)
+    lotou = '1'
+else
+    redis.call('ZADD', KEYS[3], carga, escolhido)
+end
+
+atendimento['atendenteId'] = tonumber(escolhido)
+atendimento['status'] = 'EM_ATENDIMENTO'
+atendimento['dataHoraAtendimento'] = ARGV[2]
+atendimentoJson = cjson.encode(atendimento)
+redis.call('SET', KEYS[1], atendimentoJson)
+redis.call('HINCRBY', KEYS[4], 'ativos', 1)
+
+local id = string.format('%d', atendimento['id'])
+redis.call('HSET', KEYS[5], id, atendimentoJson)
+redis.call('SADD', KEYS[6], id)
+
+return {'ATRIBUIDO', atendimentoJson, lotou}
@@ -0,0 +1,52 @@
+-- Finaliza um atendimento em andamento e libera a vaga do atendente.
+-- Executa atomicamente no Redis: só uma instância consegue finalizar o mesmo atendimento.
+--
+-- KEYS[1] atendimento:{id}
+-- KEYS[2] atendimentos:ativos (hash ID -> atendimento em andamento)
+-- ARGV[1] data/hora da finalização (ISO-8601)
+-- ARGV[2] prefixo das chaves de atendente (atendente:)
+-- ARGV[3] prefixo dos índices de disponibilidade (atendentes:disponiveis:)
+-- ARGV[4] prefixo dos contadores do dashboard por time (metricas:)
+-- ARGV[5] prefixo dos sets de atendimentos em andamento por time (atendimentos:ativos:)
+--
+-- Retorno: {'FINALIZADO', atendimentoJson, liberou ('1'/'0')} ou {'NAO_ATIVO'} ou {'INEXISTENTE'}
+
+local atendimentoJson = redis.call('GET', KEYS[1])
+if not atendimentoJson then
+    return {'INEXISTENTE'}
+end
+
+local atendimento = cjson.decode(atendimentoJson)
+if atendimento['status'] ~= 'EM_ATENDIMENTO' then
+    return {'NAO_ATIVO'}
+end
+
+atendimento['status'] = 'FINALIZADO'
+atendimento['dataHoraFinalizacao'] = ARGV[1]
+atendimentoJson = cjson.encode(atendimento)
+redis.call('SET', KEYS[1], atendimentoJson)
+
+local id = string.format('%d', atendimento['id'])
+redis.call('HDEL', KEYS[2], id)
+redis.call('SREM', ARGV[5] .. atendimento['time'], id)
+
+local chaveMetricas = ARGV[4] .. atendimento['time']
+redis.call('HINCRBY', chaveMetricas, 'ativos', -1)
+
+local liberou = '0'
+local atendenteId = atendimento['atendenteId']
+if atendenteId and atendenteId ~= cjson.null then
+    local chaveAtendente = ARGV[2] .. string.format('%d', atendenteId)
+    local carga = tonumber(redis.call('HGET', chaveAtendente, 'atendimentosAtivos'))
+    if carga and carga > 0 then
+        carga = redis.call('HINCRBY', chaveAtendente, 'atendimentosAtivos', -1)
+        -- Volta (ou sobe) no índice de disponibilidade do time com a nova carga
+        local adicionados = redis.call('ZADD', ARGV[3] .. atendimento['time'], carga, string.format('%d', atendenteId))
+        if adicionados > 0 then
+            redis.call('HINCRBY', chaveMetricas, 'lotados', -1)
+            liberou = '1'
+        end
+    end
+end
+
+return {'FINALIZADO', atendimentoJson, liberou}
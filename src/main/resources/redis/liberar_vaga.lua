@@ -0,0 +1,22 @@
+-- Libera uma vaga do atendente e o recoloca no índice de disponibilidade do time.
+-- Executa atomicamente no Redis, como a reserva (reservar_vagas.lua).
+--
+-- KEYS[1] atendente:{id}
+-- KEYS[2] atendentes:disponiveis:{TIME}
+-- KEYS[3] metricas:{TIME} (contadores do dashboard: lotados)
+-- ARGV[1] ID do atendente (membro do índice)
+--
+-- Retorno: {carga após a liberação, voltou ao índice ('1'/'0')} ou {} se não havia vaga ocupada
+
+local carga = tonumber(redis.call('HGET', KEYS[1], 'atendimentosAtivos'))
+if not carga or carga <= 0 then
+    return {}
+end
+
+carga = redis.call('HINCRBY', KEYS[1], 'atendimentosAtivos', -1)
+local adicionados = redis.call('ZADD', KEYS[2], carga, ARGV[1])
+if adicionados > 0 then
+    redis.call('HINCRBY', KEYS[3], 'lotados', -1)
+end
+
+return {tostring(carga), adicionados > 0 and '1' or '0'}
@@ -0,0 +1,97 @@
+-- Retira itens do início da fila do time e os distribui aos atendentes de menor
+-- carga, enquanto houver fila e vagas livres. Executa atomicamente no Redis.
+--
+-- KEYS[1] fila:{TIME} (lista de IDs; listas antigas podem ter o atendimento inteiro)
+-- KEYS[2] atendentes:disponiveis:{TIME} (sorted set: score = atendimentos ativos)
+-- KEYS[3] metricas:{TIME} (contadores do dashboard: ativos, fila, lotados)
+-- KEYS[4] atendimentos:ativos (hash ID -> atendimento em andamento)
+-- KEYS[5] atendimentos:ativos:{TIME} (set com os IDs em andamento do time)
+-- ARGV[1] máximo de atendimentos por atendente
+-- ARGV[2] data/hora do atendimento (ISO-8601)
+-- ARGV[3] prefixo das chaves de atendente (atendente:)
+-- ARGV[4] prefixo das chaves de atendimento (atendimento:)
+-- ARGV[5] limite de itens a distribuir nesta execução
+--
+-- Retorno: {atendentesLotados, atendimentoJson...} com os atendimentos distribuídos na ordem da fila
+
+-- Atendente de menor carga com vaga. Entradas desatualizadas do índice (atendente lotado
+-- ou inexistente) são removidas, como em reservar_vagas.lua.
+local function escolherAtendente(indice, prefixoAtendente, maximo)
+    while true do
+        local escolhido = redis.call('ZRANGE', indice, 0, 0)[1]
+        if not escolhido then
+            return nil
+        end
+
+        local carga = tonumber(redis.call('HGET', prefixoAtendente .. escolhido, 'atendimentosAtivos'))
+        if carga and carga < maximo then
+            return escolhido
+        end
+        redis.call('ZREM', indice, escolhido)
+    end
+end
+
+local maximo = tonumber(ARGV[1])
+local limite = tonumber(ARGV[5])
+
+local lotados = 0
+local retirados = 0
+local distribuidos = {}
+
+while #distribuidos < limite do
+    local escolhido = escolherAtendente(KEYS[2], ARGV[3], maximo)
+    if not escolhido then
+        break
+    end
+
+    local item = redis.call('LPOP', KEYS[1])
+    if not item then
+        break
+    end
+    retirados = retirados + 1
+
+    -- Item antigo traz o atendimento inteiro; o registro canônico é preferido em ambos os casos
+    local atendimento = nil
+    local id = item
+    if string.sub(item, 1, 1) == '{' then
+        atendimento = cjson.decode(item)
+        id = string.format('%d', atendimento['id'])
+    end
+
+    local chaveAtendimento = ARGV[4] .. id
+    local canonico = redis.call('GET', chaveAtendimento)
+    if canonico then
+        atendimento = cjson.decode(canonico)
+    end
+
+    -- ID sem registro canônico (atendimento removido): o item é descartado
+    if atendimento then
+        local carga = redis.call('HINCRBY', ARGV[3] .. escolhido, 'atendimentosAtivos', 1)
+        if carga >= maximo then
+            redis.call('ZREM', KEYS[2], escolhido)
+            lotados = lotados + 1
+        else
+            redis.call('ZADD', KEYS[2], carga, escolhido)
+        end
+
+        atendimento['atendenteId'] = tonumber(escolhido)
+        atendimento['status'] = 'EM_ATENDIMENTO'
+        atendimento['dataHoraAtendimento'] = ARGV[2]
+
+        local atendimentoJson = cjson.encode(atendimento)
+        redis.call('SET', chaveAtendimento, atendimentoJson)
+        redis.call('HSET', KEYS[4], id, atendimentoJson)
+        redis.call('SADD', KEYS[5], id)
+        table.insert(distribuidos, atendimentoJson)
+    end
+end
+
+-- Itens descartados também saíram da fila
+if retirados > 0 then
+    redis.call('HINCRBY', KEYS[3], 'fila', -retirados)
+    redis.call('HINCRBY', KEYS[3], 'ativos', #distribuidos)
+    redis.call('HINCRBY', KEYS[3], 'lotados', lotados)
+end
+
+table.insert(distribuidos, 1, tostring(lotados))
+return distribuidos
@@ -0,0 +1,45 @@
+-- Reserva vagas nos atendentes de menor carga de um time (Least Connection).
+-- Executa atomicamente no Redis: cada reserva incrementa a carga só se ainda houver vaga,
+-- então reservas e liberações de várias instâncias nunca se sobrescrevem.
+--
+-- KEYS[1] atendentes:disponiveis:{TIME} (sorted set: score = atendimentos ativos)
+-- KEYS[2] metricas:{TIME} (contadores do dashboard: lotados)
+-- ARGV[1] máximo de atendimentos por atendente
+-- ARGV[2] prefixo das chaves de atendente (atendente:)
+-- ARGV[3] quantidade de vagas a reservar
+--
+-- Retorno: {id, carga, id, carga, ...} na ordem das reservas, com a carga após cada uma
+
+local maximo = tonumber(ARGV[1])
+local quantidade = tonumber(ARGV[3])
+local reservas = {}
+local reservadas = 0
+
+while reservadas < quantidade do
+    local escolhido = redis.call('ZRANGE', KEYS[1], 0, 0)[1]
+    if not escolhido then
+        break
+    end
+
+    local chaveAtendente = ARGV[2] .. escolhido
+    local carga = tonumber(redis.call('HGET', chaveAtendente, 'atendimentosAtivos'))
+
+    if not carga or carga >= maximo then
+        -- Índice desatualizado (atendente lotado ou inexistente): remove e tenta o próximo
+        redis.call('ZREM', KEYS[1], escolhido)
+    else
+        carga = redis.call('HINCRBY', chaveAtendente, 'atendimentosAtivos', 1)
+        if carga >= maximo then
+            redis.call('ZREM', KEYS[1], escolhido)
+            redis.call('HINCRBY', KEYS[2], 'lotados', 1)
+        else
+            redis.call('ZADD', KEYS[1], carga, escolhido)
+        end
+
+        reservadas = reservadas + 1
+        reservas[#reservas + 1] = escolhido
+        reservas[#reservas + 1] = tostring(carga)
+    end
+end
+
+return reservas
@@ -0,0 +1,107 @@
+package com.flowpay.atendimento.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flowpay.atendimento.config.CodecBinarioRedisSerializer;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação de um Atendimento finalizado para o Redis:
+ *
+ * - json: GenericJackson2JsonRedisSerializer configurado como no RedisConfig; a leitura
+ *   inclui a conversão do LinkedHashMap retornado para Atendimento;
+ * - binario: CodecBinarioRedisSerializer (flowpay.redis.codec=binario).
+ *
+ * O tamanho em bytes de cada formato é impresso no início da execução.
+ *
+ * Execução:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main CodecRedisBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecRedisBenchmark {
+
+    private ObjectMapper objectMapper;
+    private RedisSerializer<Object> json;
+    private CodecBinarioRedisSerializer binario;
+
+    private Atendimento atendimento;
+    private byte[] codificadoJson;
+    private byte[] codificadoBinario;
+
+    // O serializer JSON é o mesmo do RedisConfig, ainda que depreciado no Spring Data Redis 4
+    @Setup
+    @SuppressWarnings("removal")
+    public void setup() {
+        // Mesma configuração do RedisConfig
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        json = new GenericJackson2JsonRedisSerializer(objectMapper);
+        binario = new CodecBinarioRedisSerializer(json, true);
+
+        LocalDateTime criacao = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000_000);
+        atendimento = Atendimento.builder()
+                .id(184_467L)
+                .time(Time.CARTOES)
+                .atendenteId(42L)
+                .assunto("Problemas com cartão")
+                .nomeCliente("Maria da Silva")
+                .status(StatusAtendimento.FINALIZADO)
+                .dataHoraCriacao(criacao)
+                .dataHoraAtendimento(criacao.plusSeconds(40))
+                .dataHoraFinalizacao(criacao.plusMinutes(12))
+                .build();
+
+        codificadoJson = json.serialize(atendimento);
+        codificadoBinario = binario.serialize(atendimento);
+
+        System.out.printf("Bytes por atendimento: json=%d, binario=%d%n",
+                codificadoJson.length, codificadoBinario.length);
+    }
+
+    @Benchmark
+    public byte[] codificarJson() {
+        return json.serialize(atendimento);
+    }
+
+    @Benchmark
+    public byte[] codificarBinario() {
+        return binario.serialize(atendimento);
+    }
+
+    @Benchmark
+    public Atendimento decodificarJson() {
+        return objectMapper.convertValue(json.deserialize(codificadoJson), Atendimento.class);
+    }
+
+    @Benchmark
+    public Object decodificarBinario() {
+        return binario.deserialize(codificadoBinario);
+    }
+}
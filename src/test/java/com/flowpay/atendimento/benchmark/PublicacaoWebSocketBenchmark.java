@@ -0,0 +1,108 @@
+package com.flowpay.atendimento.benchmark;
+
+import com.flowpay.atendimento.dto.websocket.FilaAtualizadaMessage;
+import com.flowpay.atendimento.dto.websocket.WebSocketMessage;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.impl.PublicadorMensagens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por evento de FILA_ATUALIZADA, enviada a /topic/fila/{TIME} e /topic/filas.
+ *
+ * - convertAndSend: comportamento anterior, Jackson executado uma vez por destino;
+ * - serializarUmaVez: PublicadorMensagens.publicar, um JSON compartilhado pelos destinos;
+ * - reaproveitarCodificacao: publicarReaproveitando com o mesmo estado da fila.
+ *
+ * O canal descarta as mensagens, então só a conversão e a montagem da mensagem são medidas.
+ *
+ * Execução:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main PublicacaoWebSocketBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicacaoWebSocketBenchmark {
+
+    private static final String[] DESTINOS = {"/topic/fila/CARTOES", "/topic/filas"};
+
+    private SimpMessagingTemplate messagingTemplate;
+    private PublicadorMensagens publicadorMensagens;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        MessageChannel canal = (mensagem, timeout) -> {
+            blackhole.consume(mensagem);
+            return true;
+        };
+
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+
+        // Mesmos conversores que o Spring registra para o broker STOMP
+        messagingTemplate = new SimpMessagingTemplate(canal);
+        messagingTemplate.setMessageConverter(new CompositeMessageConverter(List.of(
+                new StringMessageConverter(),
+                new ByteArrayMessageConverter(),
+                new JacksonJsonMessageConverter(jsonMapper))));
+
+        publicadorMensagens = new PublicadorMensagens(messagingTemplate, jsonMapper, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void convertAndSend() {
+        WebSocketMessage mensagem = mensagemFila();
+        for (String destino : DESTINOS) {
+            messagingTemplate.convertAndSend(destino, mensagem);
+        }
+    }
+
+    @Benchmark
+    public void serializarUmaVez() {
+        publicadorMensagens.publicar(mensagemFila(), DESTINOS);
+    }
+
+    @Benchmark
+    public void reaproveitarCodificacao() {
+        publicadorMensagens.publicarReaproveitando("fila:CARTOES", mensagemFila(), DESTINOS);
+    }
+
+    private static WebSocketMessage mensagemFila() {
+        FilaAtualizadaMessage dados = FilaAtualizadaMessage.builder()
+                .time(Time.CARTOES)
+                .tamanhoFila(12)
+                .atendimentosAtivos(9)
+                .build();
+
+        return WebSocketMessage.builder()
+                .tipo(WebSocketMessage.TipoMensagem.FILA_ATUALIZADA)
+                .timestamp(LocalDateTime.now())
+                .dados(dados)
+                .mensagem("Fila do time CARTOES foi atualizada")
+                .build();
+    }
+}
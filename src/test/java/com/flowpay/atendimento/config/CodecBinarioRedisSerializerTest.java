@@ -0,0 +1,132 @@
+package com.flowpay.atendimento.config;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecBinarioRedisSerializerTest {
+
+    // Fábrica não iniciada: o RedisConfig só a associa ao template, sem conectar
+    private final LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory();
+
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> binario;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisConfig config = new RedisConfig();
+        json = (RedisSerializer<Object>) config.redisTemplate(connectionFactory, "json", "sincrono").getValueSerializer();
+        binario = (RedisSerializer<Object>) config.redisTemplate(connectionFactory, "binario", "sincrono").getValueSerializer();
+    }
+
+    private Atendimento criarAtendimentoCompleto() {
+        LocalDateTime criacao = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_000_000);
+        return Atendimento.builder()
+                .id(184_467L)
+                .time(Time.CARTOES)
+                .atendenteId(42L)
+                .assunto("Problemas com cartão")
+                .nomeCliente("Maria da Silva")
+                .status(StatusAtendimento.FINALIZADO)
+                .dataHoraCriacao(criacao)
+                .dataHoraAtendimento(criacao.plusSeconds(40))
+                .dataHoraFinalizacao(criacao.plusMinutes(12))
+                .build();
+    }
+
+    @Test
+    void atendimentoCompleto_DeveSobreviverIdaEVolta() {
+        Atendimento atendimento = criarAtendimentoCompleto();
+
+        byte[] codificado = binario.serialize(atendimento);
+
+        assertEquals(atendimento, binario.deserialize(codificado));
+        assertTrue(codificado.length < json.serialize(atendimento).length);
+    }
+
+    @Test
+    void atendimentoVazio_DeveSobreviverIdaEVolta() {
+        Atendimento vazio = new Atendimento();
+
+        assertEquals(vazio, binario.deserialize(binario.serialize(vazio)));
+    }
+
+    @Test
+    void valoresExtremos_DevemSobreviverIdaEVolta() {
+        Atendimento atendimento = Atendimento.builder()
+                .id(Long.MAX_VALUE)
+                .atendenteId(Long.MAX_VALUE)
+                .time(Time.OUTROS)
+                .assunto("Cobrança indevida ✓ 日本語 😀")
+                .nomeCliente("João Açaí")
+                .status(StatusAtendimento.AGUARDANDO_ATENDIMENTO)
+                .dataHoraCriacao(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_000_000))
+                .dataHoraAtendimento(LocalDateTime.of(1900, 1, 1, 0, 0))
+                .build();
+
+        assertEquals(atendimento, binario.deserialize(binario.serialize(atendimento)));
+    }
+
+    @Test
+    void atendente_DeveSobreviverIdaEVolta() {
+        Atendente atendente = Atendente.builder()
+                .id(7L)
+                .nome("Zé Müller")
+                .time(Time.EMPRESTIMOS)
+                .atendimentosAtivos(Atendente.MAX_ATENDIMENTOS)
+                .build();
+
+        assertEquals(atendente, binario.deserialize(binario.serialize(atendente)));
+    }
+
+    @Test
+    void outrosTipos_DevemSerGravadosEmJson() {
+        assertArrayEquals(json.serialize(5L), binario.serialize(5L));
+        assertArrayEquals(json.serialize("CARTOES"), binario.serialize("CARTOES"));
+        assertEquals("CARTOES", binario.deserialize(binario.serialize("CARTOES")));
+    }
+
+    @Test
+    void valorLegadoEmJson_DeveSerLidoPeloCodecBinario() {
+        Atendimento atendimento = criarAtendimentoCompleto();
+
+        Object lido = binario.deserialize(json.serialize(atendimento));
+
+        // Sem o byte mágico o valor vai ao serializer JSON, que devolve o mapa de campos
+        Map<?, ?> campos = assertInstanceOf(Map.class, lido);
+        assertEquals("Maria da Silva", campos.get("nomeCliente"));
+        assertEquals("FINALIZADO", campos.get("status"));
+        assertNull(binario.deserialize(null));
+    }
+
+    @Test
+    void codecJson_DeveLerValoresGravadosEmBinario() {
+        Atendimento atendimento = criarAtendimentoCompleto();
+
+        assertEquals(atendimento, json.deserialize(binario.serialize(atendimento)));
+        assertTrue(new String(json.serialize(atendimento), StandardCharsets.UTF_8).startsWith("{"));
+    }
+
+    @Test
+    void binarioComRedisLua_DeveFalharNaInicializacao() {
+        RedisConfig config = new RedisConfig();
+
+        assertThrows(IllegalStateException.class,
+                () -> config.redisTemplate(connectionFactory, "binario", "redis-lua"));
+        assertThrows(IllegalArgumentException.class,
+                () -> config.redisTemplate(connectionFactory, "xml", "sincrono"));
+        assertDoesNotThrow(() -> config.redisTemplate(connectionFactory, "json", "redis-lua"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.flowpay.atendimento.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProtecaoConsumidorLentoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebSocketSession socket;
+
+    // Frames que chegaram ao socket, na ordem de escrita
+    private final List<String> enviados = new CopyOnWriteArrayList<>();
+    private final CountDownLatch primeiroEnvio = new CountDownLatch(1);
+    private final CountDownLatch liberacao = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        socket = mock(WebSocketSession.class);
+        when(socket.getId()).thenReturn("s1");
+
+        // O primeiro envio fica preso até a liberação, como um cliente que não lê o socket
+        doAnswer(invocation -> {
+            primeiroEnvio.countDown();
+            liberacao.await();
+            enviados.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(socket).sendMessage(any(WebSocketMessage.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberacao.countDown();
+    }
+
+    private WebSocketSession decorar(long tempoLimiteMs, int bufferLimiteBytes) {
+        // O executor do canal de saída só é usado pelo gauge
+        ProtecaoConsumidorLento protecao = new ProtecaoConsumidorLento(meterRegistry, null,
+                Set.of("/topic/metricas"), tempoLimiteMs, bufferLimiteBytes);
+        return protecao.decorar(socket);
+    }
+
+    private static TextMessage frame(String destino, String assinatura, String corpo) {
+        return new TextMessage("MESSAGE\ndestination:" + destino + "\ncontent-type:application/json\n"
+                + "subscription:" + assinatura + "\nmessage-id:1\ncontent-length:" + corpo.length()
+                + "\n\n" + corpo + "\0");
+    }
+
+    private double conflacionadas() {
+        return meterRegistry.counter("flowpay.websocket.conflacionadas").count();
+    }
+
+    private void aguardarEnviados(int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (enviados.size() < quantidade) {
+            assertTrue(System.nanoTime() < limite, "frames não enviados em 5s");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void sendMessage_SessaoAtrasadaDeveReceberSoAUltimaMetrica() throws Exception {
+        WebSocketSession sessao = decorar(60_000, 1_000_000);
+
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":1}"));
+        assertTrue(primeiroEnvio.await(5, TimeUnit.SECONDS));
+
+        // Com o socket travado, os envios seguintes só enfileiram e não bloqueiam
+        for (int i = 1; i <= 5; i++) {
+            sessao.sendMessage(frame("/topic/metricas", "sub-0", "{\"metricas\":" + i + "}"));
+        }
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":2}"));
+        assertEquals(4, conflacionadas());
+
+        liberacao.countDown();
+        aguardarEnviados(3);
+
+        assertTrue(enviados.get(0).contains("{\"fila\":1}"));
+        assertTrue(enviados.get(1).contains("{\"metricas\":5}"));
+        assertTrue(enviados.get(2).contains("{\"fila\":2}"));
+        Thread.sleep(50);
+        assertEquals(3, enviados.size());
+    }
+
+    @Test
+    void sendMessage_NaoDeveConflacionarOutrasAssinaturasNemOutrosDestinos() throws Exception {
+        WebSocketSession sessao = decorar(60_000, 1_000_000);
+
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":1}"));
+        assertTrue(primeiroEnvio.await(5, TimeUnit.SECONDS));
+
+        sessao.sendMessage(frame("/topic/metricas", "sub-0", "{\"metricas\":1}"));
+        sessao.sendMessage(frame("/topic/metricas", "sub-9", "{\"metricas\":1}"));
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":2}"));
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":3}"));
+        sessao.sendMessage(new TextMessage("\n"));
+
+        liberacao.countDown();
+        aguardarEnviados(6);
+        assertEquals(0, conflacionadas());
+    }
+
+    @Test
+    void sendMessage_DeveEncerrarSessaoQueExcedeOBuffer() throws Exception {
+        WebSocketSession sessao = decorar(60_000, 300);
+
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":1}"));
+        assertTrue(primeiroEnvio.await(5, TimeUnit.SECONDS));
+
+        // Métricas se substituem e não enchem o buffer; os frames de fila se acumulam
+        for (int i = 0; i < 50; i++) {
+            sessao.sendMessage(frame("/topic/metricas", "sub-0", "{\"metricas\":" + i + "}"));
+        }
+        SessionLimitExceededException excedido = assertThrows(SessionLimitExceededException.class, () -> {
+            for (int i = 0; i < 50; i++) {
+                sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":" + i + "}"));
+            }
+        });
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, excedido.getStatus());
+
+        // Após exceder, nada mais é enfileirado nem enviado além do frame em andamento
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":99}"));
+        liberacao.countDown();
+        aguardarEnviados(1);
+        Thread.sleep(50);
+        assertEquals(1, enviados.size());
+    }
+
+    @Test
+    void sendMessage_DeveEncerrarSessaoComEnvioTravadoAlemDoTempoLimite() throws Exception {
+        WebSocketSession sessao = decorar(50, 1_000_000);
+
+        sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":1}"));
+        assertTrue(primeiroEnvio.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        SessionLimitExceededException excedido = assertThrows(SessionLimitExceededException.class,
+                () -> sessao.sendMessage(frame("/topic/filas", "sub-1", "{\"fila\":2}")));
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, excedido.getStatus());
+    }
+
+    @Test
+    void chaveConflacao_DeveLerDestinoEAssinaturaDoFrame() {
+        ProtecaoConsumidorLento protecao = new ProtecaoConsumidorLento(meterRegistry, null,
+                Set.of("/topic/metricas"), 60_000, 1_000_000);
+
+        assertEquals("/topic/metricas|sub-0", protecao.chaveConflacao(frame("/topic/metricas", "sub-0", "{}")));
+        assertNull(protecao.chaveConflacao(frame("/topic/filas", "sub-0", "{}")));
+        assertNull(protecao.chaveConflacao(new TextMessage("CONNECTED\nversion:1.2\n\n\0")));
+        assertNull(protecao.chaveConflacao(new TextMessage("\n")));
+    }
+}
@@ -0,0 +1,152 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendimentoService;
+import com.flowpay.atendimento.service.DistribuidorService;
+import com.flowpay.atendimento.service.NotificacaoService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import com.flowpay.atendimento.service.impl.memory.InMemoryAtendenteService;
+import com.flowpay.atendimento.service.impl.memory.InMemoryAtendimentosAtivosService;
+import com.flowpay.atendimento.service.impl.memory.InMemoryFilaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistribuidorServiceImplTest {
+
+    private static final Time TIME = Time.CARTOES;
+
+    @Mock
+    private AtendimentoService atendimentoService;
+
+    @Mock
+    private NotificacaoService notificacaoService;
+
+    @Mock
+    private RegistroMetricas registroMetricas;
+
+    private InMemoryFilaService filaService;
+    private InMemoryAtendenteService atendenteService;
+    private InMemoryAtendimentosAtivosService atendimentosAtivos;
+    private DistribuidorServiceImpl distribuidor;
+
+    @BeforeEach
+    void setUp() {
+        filaService = spy(new InMemoryFilaService());
+        // O cadastro chama processarFila do distribuidor real; aqui o teste chama diretamente
+        atendenteService = new InMemoryAtendenteService(mock(NotificacaoService.class), mock(DistribuidorService.class));
+        atendimentosAtivos = new InMemoryAtendimentosAtivosService();
+        distribuidor = new DistribuidorServiceImpl(filaService, atendenteService, atendimentoService,
+                notificacaoService, registroMetricas, atendimentosAtivos);
+    }
+
+    private Atendente cadastrarAtendente(String nome) {
+        return atendenteService.cadastrar(Atendente.builder().nome(nome).time(TIME).build());
+    }
+
+    private void enfileirar(int quantidade) {
+        for (long id = 1; id <= quantidade; id++) {
+            filaService.enfileirar(Atendimento.builder()
+                    .id(id)
+                    .nomeCliente("Cliente " + id)
+                    .assunto("Assunto")
+                    .time(TIME)
+                    .status(StatusAtendimento.AGUARDANDO_ATENDIMENTO)
+                    .build());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Atendimento> loteNotificado() {
+        ArgumentCaptor<List<Atendimento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacaoService).notificarAtendimentosDistribuidos(eq(TIME), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void processarFila_ComMaisItensQueVagasDeveDistribuirSoAsVagasEmOrdemFifo() {
+        Atendente ana = cadastrarAtendente("Ana");
+        Atendente bruno = cadastrarAtendente("Bruno");
+        enfileirar(8);
+
+        distribuidor.processarFila(TIME);
+
+        List<Atendimento> lote = loteNotificado();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), lote.stream().map(Atendimento::getId).toList());
+        for (Atendimento atendimento : lote) {
+            assertEquals(StatusAtendimento.EM_ATENDIMENTO, atendimento.getStatus());
+            assertNotNull(atendimento.getDataHoraAtendimento());
+            assertTrue(atendimentosAtivos.buscar(atendimento.getId()).isPresent());
+        }
+
+        // Cada vaga reservada foi casada com exatamente um item do lote
+        assertEquals(3, lote.stream().filter(a -> a.getAtendenteId().equals(ana.getId())).count());
+        assertEquals(3, lote.stream().filter(a -> a.getAtendenteId().equals(bruno.getId())).count());
+        assertEquals(Atendente.MAX_ATENDIMENTOS, ana.getAtendimentosAtivos());
+        assertEquals(Atendente.MAX_ATENDIMENTOS, bruno.getAtendimentosAtivos());
+
+        assertEquals(2, filaService.tamanhoFila(TIME));
+        verify(filaService).desenfileirarLote(TIME, 6);
+        verify(registroMetricas).desenfileirados(TIME, 6);
+        verify(atendimentoService, times(6)).persistir(any());
+    }
+
+    @Test
+    void processarFila_ComMenosItensQueVagasReservadasDeveDevolverAsSobras() {
+        Atendente ana = cadastrarAtendente("Ana");
+        enfileirar(1);
+        // A fila tinha 3 itens na contagem, mas 2 foram retirados antes do lote
+        doReturn(3).when(filaService).tamanhoFila(TIME);
+
+        distribuidor.processarFila(TIME);
+
+        verify(filaService).desenfileirarLote(TIME, 3);
+        List<Atendimento> lote = loteNotificado();
+        assertEquals(1, lote.size());
+        assertEquals(ana.getId(), lote.get(0).getAtendenteId());
+
+        // Só a vaga usada continua ocupada
+        assertEquals(1, ana.getAtendimentosAtivos());
+        assertTrue(ana.isDisponivel());
+        assertEquals(List.of(ana), atendenteService.buscarDisponiveisPorTime(TIME));
+        verify(registroMetricas).desenfileirados(TIME, 1);
+    }
+
+    @Test
+    void processarFila_ComFilaVaziaNaoDeveReservarNemNotificar() {
+        Atendente ana = cadastrarAtendente("Ana");
+
+        distribuidor.processarFila(TIME);
+
+        assertEquals(0, ana.getAtendimentosAtivos());
+        verify(filaService, never()).desenfileirarLote(any(), anyInt());
+        verify(notificacaoService, never()).notificarAtendimentosDistribuidos(any(), any());
+        verifyNoInteractions(registroMetricas);
+    }
+
+    @Test
+    void processarFila_SemVagasNaoDeveRetirarDaFilaNemNotificar() {
+        enfileirar(2);
+
+        distribuidor.processarFila(TIME);
+
+        assertEquals(2, filaService.tamanhoFila(TIME));
+        verify(filaService, never()).desenfileirarLote(any(), anyInt());
+        verify(notificacaoService, never()).notificarAtendimentosDistribuidos(any(), any());
+    }
+}
@@ -0,0 +1,104 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.dto.response.DashboardSincronizacaoResponse;
+import com.flowpay.atendimento.dto.websocket.DashboardDeltaMessage;
+import com.flowpay.atendimento.dto.websocket.DashboardSnapshotMessage;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class FluxoDashboardTest {
+
+    private FluxoDashboard fluxo;
+
+    @BeforeEach
+    void setUp() {
+        fluxo = criarFluxo(2);
+    }
+
+    private static FluxoDashboard criarFluxo(int tamanhoHistorico) {
+        return new FluxoDashboard(mock(SimpMessagingTemplate.class),
+                new RegistroAssinaturas(new SimpleMeterRegistry()), tamanhoHistorico);
+    }
+
+    private static RegistroMetricas.Contagens contagens(int filaCartoes) {
+        Map<Time, RegistroMetricas.Contagem> porTime = new EnumMap<>(Time.class);
+        for (Time time : Time.values()) {
+            porTime.put(time, new RegistroMetricas.Contagem(0, time == Time.CARTOES ? filaCartoes : 0, 0, 0));
+        }
+        return new RegistroMetricas.Contagens(porTime);
+    }
+
+    @Test
+    void publicarAlteracoes_DeveNumerarDeltasSoQuandoHaAlteracao() {
+        fluxo.publicarAlteracoes(contagens(1));
+        fluxo.publicarAlteracoes(contagens(1));
+        fluxo.publicarAlteracoes(contagens(2));
+
+        DashboardSnapshotMessage snapshot = fluxo.snapshot();
+        assertEquals(2, snapshot.getSequencia());
+        assertEquals(2, snapshot.getTimes().get(Time.CARTOES).getFila());
+        assertNotNull(snapshot.getEpoca());
+    }
+
+    @Test
+    void sincronizar_MesmaEpocaDeveRetornarDeltasPerdidos() {
+        String epoca = fluxo.snapshot().getEpoca();
+        fluxo.publicarAlteracoes(contagens(1));
+        fluxo.publicarAlteracoes(contagens(2));
+
+        DashboardSincronizacaoResponse resposta = fluxo.sincronizar(epoca, 1);
+
+        assertNull(resposta.getSnapshot());
+        assertEquals(1, resposta.getDeltas().size());
+        DashboardDeltaMessage delta = resposta.getDeltas().get(0);
+        assertEquals(2, delta.getSequencia());
+        assertEquals(epoca, delta.getEpoca());
+    }
+
+    @Test
+    void sincronizar_ForaDoHistoricoDeveRetornarSnapshot() {
+        String epoca = fluxo.snapshot().getEpoca();
+        for (int fila = 1; fila <= 4; fila++) {
+            fluxo.publicarAlteracoes(contagens(fila));
+        }
+
+        DashboardSincronizacaoResponse resposta = fluxo.sincronizar(epoca, 1);
+
+        assertNull(resposta.getDeltas());
+        assertEquals(4, resposta.getSnapshot().getSequencia());
+    }
+
+    @Test
+    void sincronizar_EpocaDeOutraInstanciaDeveRetornarSnapshot() {
+        FluxoDashboard outraInstancia = criarFluxo(2);
+        outraInstancia.publicarAlteracoes(contagens(5));
+        fluxo.publicarAlteracoes(contagens(1));
+        fluxo.publicarAlteracoes(contagens(2));
+
+        // Sequência 1 existe no histórico desta instância, mas foi numerada pela outra
+        DashboardSincronizacaoResponse resposta = fluxo.sincronizar(outraInstancia.snapshot().getEpoca(), 1);
+
+        assertNull(resposta.getDeltas());
+        assertEquals(fluxo.snapshot(), resposta.getSnapshot());
+    }
+
+    @Test
+    void sincronizar_SemEpocaDeveRetornarSnapshot() {
+        fluxo.publicarAlteracoes(contagens(1));
+
+        DashboardSincronizacaoResponse resposta = fluxo.sincronizar(null, 1);
+
+        assertNull(resposta.getDeltas());
+        assertEquals(1, resposta.getSnapshot().getSequencia());
+    }
+}
@@ -0,0 +1,143 @@
+package com.flowpay.atendimento.service.impl;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.Time;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class NotificacaoAssincronaServiceTest {
+
+    private static final int CAPACIDADE = 3;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificacaoServiceImpl notificacao;
+    private NotificacaoAssincronaService service;
+
+    private final CountDownLatch publicando = new CountDownLatch(1);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Mock: semAssinantes* retornam false, então toda notificação segue para a fila
+        notificacao = mock(NotificacaoServiceImpl.class);
+        service = new NotificacaoAssincronaService(notificacao, meterRegistry, CAPACIDADE);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        liberar.countDown();
+        service.encerrar();
+    }
+
+    private static Atendimento atendimento(long id) {
+        return Atendimento.builder().id(id).time(Time.CARTOES).nomeCliente("Cliente " + id).assunto("Assunto").build();
+    }
+
+    /**
+     * Ocupa a thread consumidora com a primeira notificação, para que as seguintes
+     * fiquem na fila limitada.
+     */
+    private void ocuparConsumidor(Atendimento atendimento) throws InterruptedException {
+        doAnswer(invocation -> {
+            publicando.countDown();
+            liberar.await();
+            return null;
+        }).when(notificacao).notificarNovoAtendimento(argThat(a -> a != null && a.getId() == 1L));
+
+        service.notificarNovoAtendimento(atendimento);
+        assertTrue(publicando.await(5, TimeUnit.SECONDS));
+    }
+
+    private double descartadas(String tipo) {
+        return meterRegistry.counter("flowpay.notificacao.descartadas", "tipo", tipo).count();
+    }
+
+    @Test
+    void enviar_ComFilaCheiaDeveDescartarMesclarEEntregarNaOrdem() throws Exception {
+        ocuparConsumidor(atendimento(1));
+
+        service.notificarAtualizacaoFila(Time.CARTOES);
+        service.notificarAtualizacaoFila(Time.CARTOES);
+        service.notificarAtendimentoFinalizado(atendimento(2));
+        service.notificarNovoAtendente(Atendente.builder().id(7L).nome("Ana").time(Time.CARTOES).build());
+
+        // Fila cheia (CAPACIDADE itens aguardando)
+        service.notificarNovoAtendimento(atendimento(3));
+        service.notificarAtualizacaoFila(Time.EMPRESTIMOS);
+
+        assertEquals(1, meterRegistry.counter("flowpay.notificacao.mescladas").count());
+        assertEquals(1, descartadas("novo-atendimento"));
+        assertEquals(1, descartadas("atualizacao-fila"));
+        assertEquals(CAPACIDADE, meterRegistry.get("flowpay.notificacao.fila.tamanho").gauge().value());
+
+        liberar.countDown();
+        service.encerrar();
+
+        InOrder ordem = inOrder(notificacao);
+        ordem.verify(notificacao).notificarNovoAtendimento(argThat(a -> a.getId() == 1L));
+        ordem.verify(notificacao).notificarAtualizacaoFila(Time.CARTOES);
+        ordem.verify(notificacao).notificarAtendimentoFinalizado(argThat(a -> a.getId() == 2L));
+        ordem.verify(notificacao).notificarNovoAtendente(argThat(a -> a.getId() == 7L));
+        verify(notificacao, times(1)).notificarNovoAtendimento(any());
+        verify(notificacao, never()).notificarAtualizacaoFila(Time.EMPRESTIMOS);
+
+        assertEquals(4, meterRegistry.get("flowpay.notificacao.latencia").timer().count());
+    }
+
+    @Test
+    void notificarAtualizacaoFila_DescartadaNaoDeveBloquearAsSeguintes() throws Exception {
+        ocuparConsumidor(atendimento(1));
+        for (int i = 0; i < CAPACIDADE; i++) {
+            service.notificarAtendimentoFinalizado(atendimento(10 + i));
+        }
+
+        service.notificarAtualizacaoFila(Time.OUTROS);
+        assertEquals(1, descartadas("atualizacao-fila"));
+
+        liberar.countDown();
+        // A descartada não fica marcada como pendente: a próxima é enfileirada, não mesclada
+        verify(notificacao, timeout(5_000).times(CAPACIDADE)).notificarAtendimentoFinalizado(any());
+        service.notificarAtualizacaoFila(Time.OUTROS);
+        service.encerrar();
+
+        verify(notificacao).notificarAtualizacaoFila(Time.OUTROS);
+        assertEquals(0, meterRegistry.counter("flowpay.notificacao.mescladas").count());
+    }
+
+    @Test
+    void notificarNovoAtendimento_DeveEnviarCopiaDoAtendimento() throws Exception {
+        Atendimento original = atendimento(5);
+
+        service.notificarNovoAtendimento(original);
+        original.setAtendenteId(99L);
+        service.encerrar();
+
+        verify(notificacao).notificarNovoAtendimento(argThat(a -> a != original && a.getAtendenteId() == null));
+    }
+
+    @Test
+    void enviar_ErroNaPublicacaoNaoDeveInterromperAsSeguintes() throws Exception {
+        doThrow(new IllegalStateException("broker indisponível"))
+                .when(notificacao).notificarAtualizacaoFila(Time.CARTOES);
+
+        service.notificarAtualizacaoFila(Time.CARTOES);
+        service.notificarAtendimentoFinalizado(atendimento(2));
+        service.encerrar();
+
+        verify(notificacao).notificarAtendimentoFinalizado(any());
+        assertEquals(2, meterRegistry.get("flowpay.notificacao.latencia").timer().count());
+    }
+}
@@ -0,0 +1,141 @@
+package com.flowpay.atendimento.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroAssinaturasTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RegistroAssinaturas registro;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registro = new RegistroAssinaturas(meterRegistry);
+    }
+
+    private Message<byte[]> mensagem(StompCommand comando, String sessao, String assinatura, String destino) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(comando);
+        headers.setSessionId(sessao);
+        headers.setSubscriptionId(assinatura);
+        headers.setDestination(destino);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    private void assinar(String sessao, String assinatura, String destino, Principal usuario) {
+        registro.assinou(new SessionSubscribeEvent(this,
+                mensagem(StompCommand.SUBSCRIBE, sessao, assinatura, destino), usuario));
+    }
+
+    private void assinar(String sessao, String assinatura, String destino) {
+        assinar(sessao, assinatura, destino, null);
+    }
+
+    private void cancelar(String sessao, String assinatura) {
+        registro.cancelou(new SessionUnsubscribeEvent(this,
+                mensagem(StompCommand.UNSUBSCRIBE, sessao, assinatura, null)));
+    }
+
+    private void desconectar(String sessao) {
+        registro.desconectou(new SessionDisconnectEvent(this,
+                mensagem(StompCommand.DISCONNECT, sessao, null, null), sessao, CloseStatus.NORMAL));
+    }
+
+    private double totalAssinaturas() {
+        return meterRegistry.get("flowpay.websocket.assinaturas").gauge().value();
+    }
+
+    @Test
+    void assinou_DeveRegistrarDestino() {
+        assertFalse(registro.temAssinantes("/topic/metricas"));
+
+        assinar("s1", "sub-0", "/topic/metricas");
+
+        assertTrue(registro.temAssinantes("/topic/metricas", null));
+        assertArrayEquals(new String[]{"/topic/metricas"},
+                registro.assinados("/topic/filas", "/topic/metricas"));
+        assertEquals(1, totalAssinaturas());
+    }
+
+    @Test
+    void assinou_MesmoSubscriptionIdDeveSubstituirAssinaturaAnterior() {
+        assinar("s1", "sub-0", "/topic/metricas");
+        assinar("s1", "sub-0", "/topic/filas");
+
+        assertFalse(registro.temAssinantes("/topic/metricas"));
+        assertTrue(registro.temAssinantes("/topic/filas"));
+        assertEquals(1, totalAssinaturas());
+    }
+
+    @Test
+    void cancelou_DeveManterDestinoEnquantoHouverOutraSessao() {
+        assinar("s1", "sub-0", "/topic/metricas");
+        assinar("s2", "sub-0", "/topic/metricas");
+
+        cancelar("s1", "sub-0");
+        assertTrue(registro.temAssinantes("/topic/metricas"));
+
+        cancelar("s2", "sub-0");
+        assertFalse(registro.temAssinantes("/topic/metricas"));
+        assertEquals(0, totalAssinaturas());
+
+        // Cancelamento repetido não deixa o total negativo
+        cancelar("s2", "sub-0");
+        assertEquals(0, totalAssinaturas());
+    }
+
+    @Test
+    void desconectou_DeveRemoverTodasAsAssinaturasDaSessao() {
+        assinar("s1", "sub-0", "/topic/metricas");
+        assinar("s1", "sub-1", "/topic/filas");
+        assinar("s2", "sub-0", "/topic/filas");
+
+        desconectar("s1");
+
+        assertFalse(registro.temAssinantes("/topic/metricas"));
+        assertTrue(registro.temAssinantes("/topic/filas"));
+        assertEquals(Set.of("/topic/filas"), registro.destinosLocais());
+        assertEquals(1, totalAssinaturas());
+    }
+
+    @Test
+    void assinou_DestinoDeUsuarioDeveSerResolvidoParaOUsuarioDaSessao() {
+        Principal atendente = () -> "12";
+
+        assinar("s1", "sub-0", "/user/queue/atendimentos", atendente);
+
+        assertTrue(registro.temAssinantes(RegistroAssinaturas.destinoUsuario("12", "/queue/atendimentos")));
+        assertTrue(registro.temAssinantes("/user/12/queue/atendimentos"));
+        assertFalse(registro.temAssinantes("/user/13/queue/atendimentos"));
+        assertFalse(registro.temAssinantes("/user/queue/atendimentos"));
+
+        desconectar("s1");
+        assertFalse(registro.temAssinantes("/user/12/queue/atendimentos"));
+    }
+
+    @Test
+    void atualizarRemotos_DeveContarAssinantesDeOutrasInstancias() {
+        registro.atualizarRemotos(Set.of("/topic/filas"));
+
+        assertTrue(registro.temAssinanteRemoto("/topic/filas"));
+        assertTrue(registro.temAssinantes("/topic/filas"));
+        assertTrue(registro.destinosLocais().isEmpty());
+
+        registro.atualizarRemotos(Set.of());
+        assertFalse(registro.temAssinantes("/topic/filas"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.flowpay.atendimento.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class TransmissorSseTest {
+
+    private static final int CAPACIDADE = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransmissorSse transmissor;
+    private ConversorBloqueavel conversor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transmissor = new TransmissorSse(meterRegistry, CAPACIDADE, 60_000);
+        conversor = new ConversorBloqueavel();
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(transmissor))
+                .setMessageConverters(new StringHttpMessageConverter(StandardCharsets.UTF_8), conversor)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        conversor.liberar();
+        transmissor.encerrar();
+    }
+
+    private MockHttpServletResponse conectar() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/stream")).andReturn();
+        assertTrue(resultado.getRequest().isAsyncStarted());
+        return resultado.getResponse();
+    }
+
+    private void publicar(int valor) {
+        transmissor.publicar(TransmissorSse.TipoEvento.METRICAS,
+                ("{\"valor\":" + valor + "}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double clientes() {
+        return meterRegistry.get("flowpay.sse.clientes").gauge().value();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida em 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void conectar_NovoClienteDeveComecarDoUltimoEvento() throws Exception {
+        publicar(1);
+        publicar(2);
+        publicar(3);
+
+        MockHttpServletResponse resposta = conectar();
+        aguardar(() -> conteudo(resposta).contains("{\"valor\":3}"));
+
+        String recebido = conteudo(resposta);
+        assertTrue(recebido.contains("event:metricas"));
+        assertTrue(recebido.contains("id:2"));
+        assertFalse(recebido.contains("{\"valor\":1}"));
+        assertFalse(recebido.contains("{\"valor\":2}"));
+        assertTrue(transmissor.temClientes(TransmissorSse.TipoEvento.METRICAS));
+        assertFalse(transmissor.temClientes(TransmissorSse.TipoEvento.FILA));
+
+        publicar(4);
+        aguardar(() -> conteudo(resposta).contains("{\"valor\":4}"));
+    }
+
+    @Test
+    void publicar_ClienteAtrasadoDeveSerDesconectado() throws Exception {
+        MockHttpServletResponse resposta = conectar();
+        aguardar(() -> clientes() == 1);
+
+        // O cliente fica preso escrevendo o primeiro evento enquanto o buffer dá a volta
+        conversor.bloquear();
+        publicar(1);
+        assertTrue(conversor.bloqueado.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= CAPACIDADE + 2; i++) {
+            publicar(i);
+        }
+        conversor.liberar();
+
+        aguardar(() -> clientes() == 0);
+        assertEquals(1, meterRegistry.counter("flowpay.sse.desconectados").count());
+        assertFalse(transmissor.temClientes(TransmissorSse.TipoEvento.METRICAS));
+        assertFalse(conteudo(resposta).contains("{\"valor\":2}"));
+
+        // Ao reconectar, recebe o último evento
+        MockHttpServletResponse novaResposta = conectar();
+        aguardar(() -> conteudo(novaResposta).contains("{\"valor\":" + (CAPACIDADE + 2) + "}"));
+    }
+
+    private static String conteudo(MockHttpServletResponse resposta) {
+        try {
+            return resposta.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @RestController
+    static class StreamController {
+
+        private final TransmissorSse transmissor;
+
+        StreamController(TransmissorSse transmissor) {
+            this.transmissor = transmissor;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream() {
+            return transmissor.conectar(Set.of(TransmissorSse.TipoEvento.METRICAS));
+        }
+    }
+
+    /**
+     * Escreve o JSON dos eventos; quando bloqueado, segura a escrita como um cliente lento.
+     */
+    static class ConversorBloqueavel extends ByteArrayHttpMessageConverter {
+
+        private volatile CountDownLatch liberacao = new CountDownLatch(0);
+        private final CountDownLatch bloqueado = new CountDownLatch(1);
+
+        void bloquear() {
+            liberacao = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            liberacao.countDown();
+        }
+
+        @Override
+        protected void writeInternal(byte[] bytes, HttpOutputMessage outputMessage) throws IOException {
+            if (liberacao.getCount() > 0) {
+                bloqueado.countDown();
+                try {
+                    liberacao.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.writeInternal(bytes, outputMessage);
+        }
+    }
+}
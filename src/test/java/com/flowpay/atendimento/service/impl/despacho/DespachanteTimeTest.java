@@ -0,0 +1,214 @@
+package com.flowpay.atendimento.service.impl.despacho;
+
+import com.flowpay.atendimento.model.Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DespachanteTimeTest {
+
+    private DespachanteTime despachante;
+
+    private DespachanteTime iniciar(int capacidade) {
+        despachante = new DespachanteTime(Time.CARTOES, capacidade);
+        despachante.iniciar();
+        return despachante;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (despachante != null) {
+            despachante.encerrar(5_000);
+        }
+    }
+
+    /**
+     * Ocupa a thread do despachante até o latch ser liberado, para que os comandos
+     * publicados em seguida se acumulem no buffer e sejam drenados no mesmo ciclo.
+     */
+    private CompletableFuture<Void> bloquear(CountDownLatch iniciado, CountDownLatch liberar) {
+        return despachante.publicar(() -> {
+            iniciado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, false);
+    }
+
+    @Test
+    void publicar_ComVariosProdutoresDeveExecutarTudoNaOrdemDeCadaProdutor() throws Exception {
+        iniciar(4);
+        int produtores = 4;
+        int porProdutor = 500;
+        // Alterada somente pela thread do despachante
+        List<int[]> executados = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+
+        List<Future<List<CompletableFuture<Void>>>> publicacoes = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            final int produtor = p;
+            publicacoes.add(executor.submit(() -> {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int seq = 0; seq < porProdutor; seq++) {
+                    final int s = seq;
+                    futures.add(despachante.publicar(() -> executados.add(new int[]{produtor, s}), false));
+                }
+                return futures;
+            }));
+        }
+
+        for (Future<List<CompletableFuture<Void>>> publicacao : publicacoes) {
+            for (CompletableFuture<Void> future : publicacao.get(30, TimeUnit.SECONDS)) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(produtores * porProdutor, executados.size());
+        int[] ultimo = {-1, -1, -1, -1};
+        for (int[] executado : executados) {
+            assertEquals(ultimo[executado[0]] + 1, executado[1], "Ordem do produtor " + executado[0]);
+            ultimo[executado[0]] = executado[1];
+        }
+    }
+
+    @Test
+    void publicar_DeveCoalescerProcessamentosPendentesEmUmaExecucao() throws Exception {
+        iniciar(16);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        bloquear(iniciado, liberar);
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(despachante.publicar(execucoes::incrementAndGet, true));
+        }
+        liberar.countDown();
+
+        for (CompletableFuture<Void> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void publicar_ExcecaoDeveChegarATodosOsFuturesCoalescidos() throws Exception {
+        iniciar(16);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        IllegalStateException erro = new IllegalStateException("falha no processamento");
+
+        bloquear(iniciado, liberar);
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(despachante.publicar(() -> {
+                throw erro;
+            }, true));
+        }
+        liberar.countDown();
+
+        for (CompletableFuture<Void> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertSame(erro, e.getCause());
+        }
+    }
+
+    @Test
+    void publicar_ProcessamentoCoalescidoNaoDevePassarAFrenteDeComandoPublicadoDepois() throws Exception {
+        iniciar(16);
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        // Alterada somente pela thread do despachante
+        List<String> ordem = new ArrayList<>();
+
+        bloquear(iniciado, liberar);
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Void>> futures = List.of(
+                despachante.publicar(() -> ordem.add("processar"), true),
+                despachante.publicar(() -> ordem.add("processar"), true),
+                despachante.publicar(() -> ordem.add("distribuir"), false),
+                despachante.publicar(() -> ordem.add("processar"), true),
+                despachante.publicar(() -> ordem.add("finalizar"), false));
+        liberar.countDown();
+
+        for (CompletableFuture<Void> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("processar", "distribuir", "processar", "finalizar"), ordem);
+    }
+
+    @Test
+    void publicar_AposEncerrarDeveLancarIllegalStateException() throws Exception {
+        iniciar(16);
+        despachante.encerrar(5_000);
+
+        assertThrows(IllegalStateException.class, () -> despachante.publicar(() -> { }, false));
+        assertThrows(IllegalStateException.class, () -> despachante.publicar(() -> { }, true));
+    }
+
+    @Test
+    void encerrar_ComPublicacoesConcorrentesNenhumFutureDeveFicarPendente() throws Exception {
+        iniciar(8);
+        int produtores = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        CountDownLatch publicando = new CountDownLatch(produtores);
+
+        List<Future<List<CompletableFuture<Void>>>> publicacoes = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            publicacoes.add(executor.submit(() -> {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                publicando.countDown();
+                try {
+                    while (true) {
+                        futures.add(despachante.publicar(() -> { }, futures.size() % 3 == 0));
+                    }
+                } catch (IllegalStateException e) {
+                    // Despachante encerrado: o produtor para de publicar
+                }
+                return futures;
+            }));
+        }
+
+        assertTrue(publicando.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        despachante.encerrar(5_000);
+
+        int concluidos = 0;
+        for (Future<List<CompletableFuture<Void>>> publicacao : publicacoes) {
+            for (CompletableFuture<Void> future : publicacao.get(10, TimeUnit.SECONDS)) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                    concluidos++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                } catch (TimeoutException e) {
+                    fail("Comando publicado antes do encerramento ficou sem conclusão");
+                }
+            }
+        }
+        executor.shutdown();
+
+        assertTrue(concluidos > 0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.flowpay.atendimento.service.impl.despacho;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferMpscTest {
+
+    @Test
+    void construtor_DeveArredondarCapacidadeParaPotenciaDeDois() {
+        assertEquals(2, new RingBufferMpsc<>(2).capacidade());
+        assertEquals(8, new RingBufferMpsc<>(5).capacidade());
+        assertEquals(8, new RingBufferMpsc<>(8).capacidade());
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferMpsc<>(1));
+    }
+
+    @Test
+    void consumir_DeveRetornarNullQuandoVazio() {
+        RingBufferMpsc<Integer> buffer = new RingBufferMpsc<>(4);
+
+        assertNull(buffer.consumir());
+    }
+
+    @Test
+    void oferecer_DeveRecusarQuandoCheioEReaproveitarPosicoesAoDarVolta() {
+        RingBufferMpsc<Integer> buffer = new RingBufferMpsc<>(4);
+        int proximo = 0;
+        int esperado = 0;
+
+        // Várias voltas completas pelo buffer, enchendo e esvaziando parcialmente
+        for (int volta = 0; volta < 10; volta++) {
+            while (buffer.oferecer(proximo)) {
+                proximo++;
+            }
+            assertEquals(4, proximo - esperado);
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(esperado++, buffer.consumir());
+            }
+        }
+
+        Integer elemento;
+        while ((elemento = buffer.consumir()) != null) {
+            assertEquals(esperado++, elemento);
+        }
+        assertEquals(proximo, esperado);
+    }
+
+    @Test
+    void oferecer_ConcorrenteDevePreservarOrdemDeCadaProdutor() throws Exception {
+        int produtores = 4;
+        int porProdutor = 2_000;
+        RingBufferMpsc<long[]> buffer = new RingBufferMpsc<>(8);
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+
+        List<Future<Integer>> recusas = new ArrayList<>();
+        for (int p = 0; p < produtores; p++) {
+            final long produtor = p;
+            recusas.add(executor.submit(() -> {
+                int cheio = 0;
+                for (long seq = 0; seq < porProdutor; seq++) {
+                    // Buffer pequeno: os produtores esperam o consumidor liberar espaço
+                    while (!buffer.oferecer(new long[]{produtor, seq})) {
+                        cheio++;
+                        Thread.yield();
+                    }
+                }
+                return cheio;
+            }));
+        }
+
+        long[] ultimoPorProdutor = new long[produtores];
+        Arrays.fill(ultimoPorProdutor, -1);
+        int consumidos = 0;
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+
+        while (consumidos < produtores * porProdutor) {
+            long[] elemento = buffer.consumir();
+            if (elemento == null) {
+                assertTrue(System.nanoTime() < limite, "Consumidor não recebeu todos os elementos");
+                Thread.yield();
+                continue;
+            }
+            int produtor = (int) elemento[0];
+            assertEquals(ultimoPorProdutor[produtor] + 1, elemento[1], "Ordem do produtor " + produtor);
+            ultimoPorProdutor[produtor] = elemento[1];
+            consumidos++;
+        }
+
+        int totalRecusas = 0;
+        for (Future<Integer> f : recusas) {
+            totalRecusas += f.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertNull(buffer.consumir());
+        assertTrue(totalRecusas > 0, "Buffer deveria ter ficado cheio ao menos uma vez");
+    }
+}
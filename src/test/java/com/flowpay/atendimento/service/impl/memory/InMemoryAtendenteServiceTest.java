@@ -10,8 +10,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -220,6 +227,170 @@ class InMemoryAtendenteServiceTest {
         assertEquals(2, resultado.get(2).getAtendimentosAtivos());
     }
 
+    @Test
+    void buscarDisponiveisPorTime_DeveRefletirIncrementoEDecremento() {
+        Atendente atendente1 = service.cadastrar(Atendente.builder()
+                .nome("Atendente 1")
+                .time(Time.CARTOES)
+                .build());
+
+        Atendente atendente2 = service.cadastrar(Atendente.builder()
+                .nome("Atendente 2")
+                .time(Time.CARTOES)
+                .build());
+
+        atendente1.incrementarAtendimento();
+
+        List<Atendente> resultado = service.buscarDisponiveisPorTime(Time.CARTOES);
+        assertEquals("Atendente 2", resultado.get(0).getNome());
+        assertEquals("Atendente 1", resultado.get(1).getNome());
+
+        atendente2.incrementarAtendimento();
+        atendente2.incrementarAtendimento();
+        atendente1.decrementarAtendimento();
+
+        resultado = service.buscarDisponiveisPorTime(Time.CARTOES);
+        assertEquals("Atendente 1", resultado.get(0).getNome());
+        assertEquals("Atendente 2", resultado.get(1).getNome());
+    }
+
+    @Test
+    void buscarDisponiveisPorTime_DeveRemoverAtendenteLotadoDoIndice() {
+        Atendente atendente = service.cadastrar(Atendente.builder()
+                .nome("João")
+                .time(Time.CARTOES)
+                .build());
+
+        for (int i = 0; i < Atendente.MAX_ATENDIMENTOS; i++) {
+            atendente.incrementarAtendimento();
+        }
+
+        assertTrue(service.buscarDisponiveisPorTime(Time.CARTOES).isEmpty());
+
+        atendente.decrementarAtendimento();
+
+        assertEquals(1, service.buscarDisponiveisPorTime(Time.CARTOES).size());
+    }
+
+    @Test
+    void buscarMenosCarregadoPorTime_DeveRetornarEmpty_QuandoNaoHaDisponiveis() {
+        Atendente atendente = service.cadastrar(Atendente.builder()
+                .nome("João")
+                .time(Time.CARTOES)
+                .build());
+
+        atendente.setAtendimentosAtivos(Atendente.MAX_ATENDIMENTOS);
+
+        assertTrue(service.buscarMenosCarregadoPorTime(Time.CARTOES).isEmpty());
+        assertTrue(service.buscarMenosCarregadoPorTime(Time.EMPRESTIMOS).isEmpty());
+    }
+
+    @Test
+    void buscarMenosCarregadoPorTime_DeveRetornarAtendenteComMenorCarga() {
+        Atendente atendente1 = service.cadastrar(Atendente.builder()
+                .nome("Atendente 1")
+                .time(Time.CARTOES)
+                .build());
+
+        service.cadastrar(Atendente.builder()
+                .nome("Atendente 2")
+                .time(Time.CARTOES)
+                .build());
+
+        atendente1.incrementarAtendimento();
+
+        Optional<Atendente> resultado = service.buscarMenosCarregadoPorTime(Time.CARTOES);
+
+        assertTrue(resultado.isPresent());
+        assertEquals("Atendente 2", resultado.get().getNome());
+    }
+
+    @Test
+    void buscarMenosCarregadoPorTime_DeveDesempatarPorId() {
+        service.cadastrar(Atendente.builder()
+                .id(20L)
+                .nome("Atendente 20")
+                .time(Time.OUTROS)
+                .build());
+
+        service.cadastrar(Atendente.builder()
+                .id(10L)
+                .nome("Atendente 10")
+                .time(Time.OUTROS)
+                .build());
+
+        assertEquals(10L, service.buscarMenosCarregadoPorTime(Time.OUTROS).orElseThrow().getId());
+    }
+
+    @Test
+    void reservarVaga_DeveDistribuirPorMenorCarga() {
+        service.cadastrar(Atendente.builder()
+                .nome("Atendente 1")
+                .time(Time.CARTOES)
+                .build());
+
+        service.cadastrar(Atendente.builder()
+                .nome("Atendente 2")
+                .time(Time.CARTOES)
+                .build());
+
+        Atendente primeiro = service.reservarVaga(Time.CARTOES).orElseThrow();
+        Atendente segundo = service.reservarVaga(Time.CARTOES).orElseThrow();
+
+        assertNotEquals(primeiro.getId(), segundo.getId());
+        assertEquals(1, primeiro.getAtendimentosAtivos());
+        assertEquals(1, segundo.getAtendimentosAtivos());
+    }
+
+    @Test
+    void reservarVaga_DeveRetornarEmpty_QuandoTodosLotados() {
+        service.cadastrar(Atendente.builder()
+                .nome("João")
+                .time(Time.CARTOES)
+                .build());
+
+        for (int i = 0; i < Atendente.MAX_ATENDIMENTOS; i++) {
+            assertTrue(service.reservarVaga(Time.CARTOES).isPresent());
+        }
+
+        assertTrue(service.reservarVaga(Time.CARTOES).isEmpty());
+    }
+
+    @Test
+    void reservarVaga_NaoDeveUltrapassarMaximo_ComReservasConcorrentes() throws Exception {
+        int totalAtendentes = 5;
+        for (int i = 0; i < totalAtendentes; i++) {
+            service.cadastrar(Atendente.builder()
+                    .nome("Atendente " + i)
+                    .time(Time.EMPRESTIMOS)
+                    .build());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger reservadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                service.reservarVaga(Time.EMPRESTIMOS).ifPresent(a -> reservadas.incrementAndGet());
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(totalAtendentes * Atendente.MAX_ATENDIMENTOS, reservadas.get());
+        assertTrue(service.listarPorTime(Time.EMPRESTIMOS).stream()
+                .allMatch(a -> a.getAtendimentosAtivos() == Atendente.MAX_ATENDIMENTOS));
+        assertTrue(service.buscarDisponiveisPorTime(Time.EMPRESTIMOS).isEmpty());
+    }
+
     @Test
     void buscarPorId_DeveRetornarEmpty_QuandoIdNaoExiste() {
         Optional<Atendente> resultado = service.buscarPorId(999L);
@@ -11,8 +11,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -280,6 +284,79 @@ class InMemoryAtendimentoServiceTest {
         assertEquals(2, resultado.size());
     }
 
+    @Test
+    void listarPorTimeEStatus_DeveRetornarApenasCombinacao() {
+        Atendimento cartoes1 = service.criar(Atendimento.builder()
+                .nomeCliente("João")
+                .assunto("Assunto 1")
+                .time(Time.CARTOES)
+                .build());
+
+        service.criar(Atendimento.builder()
+                .nomeCliente("Maria")
+                .assunto("Assunto 2")
+                .time(Time.CARTOES)
+                .build());
+
+        Atendimento emprestimos = service.criar(Atendimento.builder()
+                .nomeCliente("Pedro")
+                .assunto("Assunto 3")
+                .time(Time.EMPRESTIMOS)
+                .build());
+
+        cartoes1.setStatus(StatusAtendimento.EM_ATENDIMENTO);
+        emprestimos.setStatus(StatusAtendimento.EM_ATENDIMENTO);
+
+        List<Atendimento> resultado = service.listarPorTimeEStatus(Time.CARTOES, StatusAtendimento.EM_ATENDIMENTO);
+
+        assertEquals(List.of(cartoes1), resultado);
+        assertEquals(1, service.listarPorTimeEStatus(Time.CARTOES, StatusAtendimento.AGUARDANDO_ATENDIMENTO).size());
+    }
+
+    @Test
+    void listarPorStatus_DeveAcompanharTransicoesDeStatus() {
+        Atendimento atendimento = service.criar(Atendimento.builder()
+                .nomeCliente("João")
+                .assunto("Assunto")
+                .time(Time.CARTOES)
+                .build());
+
+        atendimento.setStatus(StatusAtendimento.EM_ATENDIMENTO);
+        atendimento.setStatus(StatusAtendimento.FINALIZADO);
+
+        assertTrue(service.listarPorStatus(StatusAtendimento.AGUARDANDO_ATENDIMENTO).isEmpty());
+        assertTrue(service.listarPorStatus(StatusAtendimento.EM_ATENDIMENTO).isEmpty());
+        assertEquals(List.of(atendimento), service.listarPorStatus(StatusAtendimento.FINALIZADO));
+        assertEquals(1, service.listarPorTime(Time.CARTOES).size());
+    }
+
+    @Test
+    void listarPorStatus_DeveManterIndiceConsistente_ComTransicoesConcorrentes() throws InterruptedException {
+        int quantidade = 500;
+        List<Atendimento> criados = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            criados.add(service.criar(Atendimento.builder()
+                    .nomeCliente("Cliente " + i)
+                    .assunto("Assunto")
+                    .time(Time.values()[i % Time.values().length])
+                    .build()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (Atendimento atendimento : criados) {
+            executor.submit(() -> {
+                atendimento.setStatus(StatusAtendimento.EM_ATENDIMENTO);
+                atendimento.setStatus(StatusAtendimento.FINALIZADO);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(quantidade, service.listarPorStatus(StatusAtendimento.FINALIZADO).size());
+        assertTrue(service.listarPorStatus(StatusAtendimento.EM_ATENDIMENTO).isEmpty());
+        assertTrue(service.listarPorStatus(StatusAtendimento.AGUARDANDO_ATENDIMENTO).isEmpty());
+    }
+
     @Test
     void listarTodos_DeveRetornarListaVazia_QuandoNaoHaAtendimentos() {
         List<Atendimento> resultado = service.listarTodos();
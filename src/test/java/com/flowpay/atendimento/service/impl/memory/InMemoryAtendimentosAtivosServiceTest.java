@@ -0,0 +1,97 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryAtendimentosAtivosServiceTest {
+
+    private InMemoryAtendimentosAtivosService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InMemoryAtendimentosAtivosService();
+    }
+
+    private Atendimento criarAtendimento(Long id, Time time) {
+        return Atendimento.builder()
+                .id(id)
+                .nomeCliente("Cliente " + id)
+                .assunto("Assunto")
+                .time(time)
+                .status(StatusAtendimento.EM_ATENDIMENTO)
+                .atendenteId(1L)
+                .build();
+    }
+
+    @Test
+    void registrar_DevePermitirBuscarPorId() {
+        service.registrar(criarAtendimento(1L, Time.CARTOES));
+
+        Optional<Atendimento> encontrado = service.buscar(1L);
+
+        assertTrue(encontrado.isPresent());
+        assertEquals(Time.CARTOES, encontrado.get().getTime());
+    }
+
+    @Test
+    void buscar_DeveRetornarVazioQuandoNaoExiste() {
+        assertTrue(service.buscar(99L).isEmpty());
+        assertTrue(service.buscar(null).isEmpty());
+    }
+
+    @Test
+    void remover_DeveRetornarAtendimentoUmaUnicaVez() {
+        service.registrar(criarAtendimento(1L, Time.CARTOES));
+
+        assertTrue(service.remover(1L).isPresent());
+        assertTrue(service.remover(1L).isEmpty());
+        assertTrue(service.buscar(1L).isEmpty());
+    }
+
+    @Test
+    void listarPorTime_DeveRetornarApenasDoTime() {
+        service.registrar(criarAtendimento(1L, Time.CARTOES));
+        service.registrar(criarAtendimento(2L, Time.EMPRESTIMOS));
+        service.registrar(criarAtendimento(3L, Time.CARTOES));
+
+        assertEquals(3, service.listar().size());
+        assertEquals(2, service.listarPorTime(Time.CARTOES).size());
+        assertEquals(1, service.listarPorTime(Time.EMPRESTIMOS).size());
+        assertTrue(service.listarPorTime(Time.OUTROS).isEmpty());
+    }
+
+    @Test
+    void remover_ConcorrenteDeveEntregarAtendimentoAUmaSoThread() throws Exception {
+        service.registrar(criarAtendimento(1L, Time.CARTOES));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Atendimento>>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(executor.submit(() -> service.remover(1L)));
+            }
+
+            int removidos = 0;
+            for (Future<Optional<Atendimento>> resultado : resultados) {
+                if (resultado.get().isPresent()) {
+                    removidos++;
+                }
+            }
+            assertEquals(1, removidos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -6,7 +6,12 @@ import com.flowpay.atendimento.model.Time;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -180,6 +185,66 @@ class InMemoryFilaServiceTest {
         assertEquals(1, service.tamanhoFila(Time.EMPRESTIMOS));
     }
 
+    @Test
+    void desenfileirarLote_DeveRetornarListaVazia_QuandoFilaVazia() {
+        List<Atendimento> lote = service.desenfileirarLote(Time.CARTOES, 5);
+
+        assertTrue(lote.isEmpty());
+    }
+
+    @Test
+    void desenfileirarLote_DeveRemoverQuantidadeSolicitadaEmOrdemFIFO() {
+        for (long id = 1; id <= 5; id++) {
+            service.enfileirar(Atendimento.builder()
+                    .id(id)
+                    .nomeCliente("Cliente " + id)
+                    .time(Time.CARTOES)
+                    .build());
+        }
+
+        List<Atendimento> lote = service.desenfileirarLote(Time.CARTOES, 3);
+
+        assertEquals(3, lote.size());
+        assertEquals(1L, lote.get(0).getId());
+        assertEquals(2L, lote.get(1).getId());
+        assertEquals(3L, lote.get(2).getId());
+        assertEquals(2, service.tamanhoFila(Time.CARTOES));
+        assertEquals(4L, service.desenfileirar(Time.CARTOES).getId());
+    }
+
+    @Test
+    void desenfileirarLote_DeveRetornarApenasDisponiveis_QuandoQuantidadeMaiorQueFila() {
+        service.enfileirar(Atendimento.builder()
+                .id(1L)
+                .nomeCliente("João")
+                .time(Time.EMPRESTIMOS)
+                .build());
+
+        service.enfileirar(Atendimento.builder()
+                .id(2L)
+                .nomeCliente("Maria")
+                .time(Time.CARTOES)
+                .build());
+
+        List<Atendimento> lote = service.desenfileirarLote(Time.EMPRESTIMOS, 10);
+
+        assertEquals(1, lote.size());
+        assertEquals(0, service.tamanhoFila(Time.EMPRESTIMOS));
+        assertEquals(1, service.tamanhoFila(Time.CARTOES));
+    }
+
+    @Test
+    void desenfileirarLote_DeveRetornarListaVazia_QuandoQuantidadeZero() {
+        service.enfileirar(Atendimento.builder()
+                .id(1L)
+                .nomeCliente("João")
+                .time(Time.OUTROS)
+                .build());
+
+        assertTrue(service.desenfileirarLote(Time.OUTROS, 0).isEmpty());
+        assertEquals(1, service.tamanhoFila(Time.OUTROS));
+    }
+
     @Test
     void listarFila_DeveRetornarListaVazia_QuandoFilaVazia() {
         List<Atendimento> resultado = service.listarFila(Time.CARTOES);
@@ -312,6 +377,35 @@ class InMemoryFilaServiceTest {
         assertEquals(1, service.tamanhoFila(Time.CARTOES));
     }
 
+    @Test
+    void tamanhoFila_DeveManterContagemCorreta_ComOperacoesConcorrentes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            long base = t * 1_000L;
+            tarefas.add(executor.submit(() -> {
+                for (long i = 0; i < 1_000; i++) {
+                    service.enfileirar(Atendimento.builder()
+                            .id(base + i)
+                            .time(Time.CARTOES)
+                            .build());
+                    if (i % 2 == 0) {
+                        service.desenfileirar(Time.CARTOES);
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(4_000, service.tamanhoFila(Time.CARTOES));
+        assertEquals(4_000, service.listarFila(Time.CARTOES).size());
+    }
+
     @Test
     void limparFila_DeveLimparApenasFilaDoTimeEspecifico() {
         service.enfileirar(Atendimento.builder()
@@ -0,0 +1,163 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendimentoService;
+import com.flowpay.atendimento.service.DistribuidorService;
+import com.flowpay.atendimento.service.NotificacaoService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryRegistroMetricasTest {
+
+    private static final Time TIME = Time.CARTOES;
+
+    // Atendimentos do "storage", devolvidos por listarTodos na recontagem
+    private final List<Atendimento> atendimentos = new ArrayList<>();
+    private AtendimentoService atendimentoService;
+    private InMemoryAtendenteService atendenteService;
+    private InMemoryFilaService filaService;
+    private InMemoryRegistroMetricas registro;
+
+    @BeforeEach
+    void setUp() {
+        atendimentoService = mock(AtendimentoService.class);
+        when(atendimentoService.listarTodos()).thenReturn(atendimentos);
+        atendenteService = new InMemoryAtendenteService(mock(NotificacaoService.class), mock(DistribuidorService.class));
+        filaService = new InMemoryFilaService();
+
+        registro = new InMemoryRegistroMetricas(atendimentoService, atendenteService, filaService);
+        ReflectionTestUtils.setField(atendenteService, "registroMetricas", registro);
+    }
+
+    /**
+     * Contagem feita do zero a partir do storage, como na inicialização.
+     */
+    private RegistroMetricas.Contagem recontagem(Time time) {
+        InMemoryRegistroMetricas recontado = new InMemoryRegistroMetricas(atendimentoService, atendenteService, filaService);
+        recontado.carregarEstadoInicial();
+        return recontado.contagem(time);
+    }
+
+    private Atendente cadastrarAtendente(String nome) {
+        return atendenteService.cadastrar(Atendente.builder().nome(nome).time(TIME).build());
+    }
+
+    private Atendimento criarAtendimento(Time time, StatusAtendimento status) {
+        Atendimento atendimento = Atendimento.builder()
+                .id((long) atendimentos.size() + 1)
+                .nomeCliente("Cliente")
+                .assunto("Assunto")
+                .time(time)
+                .status(status)
+                .build();
+        atendimentos.add(atendimento);
+        return atendimento;
+    }
+
+    private void alterarStatus(Atendimento atendimento, StatusAtendimento status) {
+        registro.statusAlterado(atendimento.getTime(), atendimento.getStatus(), status);
+        atendimento.setStatus(status);
+    }
+
+    @Test
+    void carregarEstadoInicial_DeveContarOEstadoDoStorage() {
+        criarAtendimento(TIME, StatusAtendimento.EM_ATENDIMENTO);
+        criarAtendimento(TIME, StatusAtendimento.EM_ATENDIMENTO);
+        criarAtendimento(TIME, StatusAtendimento.AGUARDANDO_ATENDIMENTO);
+        criarAtendimento(Time.EMPRESTIMOS, StatusAtendimento.FINALIZADO);
+        criarAtendimento(null, StatusAtendimento.EM_ATENDIMENTO);
+        filaService.enfileirar(criarAtendimento(TIME, StatusAtendimento.AGUARDANDO_ATENDIMENTO));
+        cadastrarAtendente("Ana");
+        cadastrarAtendente("Bruno");
+        atendenteService.reservarVagas(TIME, 2 * Atendente.MAX_ATENDIMENTOS - 1);
+
+        // Transições anteriores à carga são descartadas
+        registro.enfileirado(TIME);
+        registro.carregarEstadoInicial();
+
+        assertEquals(new RegistroMetricas.Contagem(2, 1, 2, 1), registro.contagem(TIME));
+        assertEquals(new RegistroMetricas.Contagem(0, 0, 0, 0), registro.contagem(Time.EMPRESTIMOS));
+        assertEquals(1, registro.contagens().atendentesDisponiveis());
+    }
+
+    @Test
+    void transicoes_DevemBaterComARecontagemDoStorage() {
+        registro.carregarEstadoInicial();
+        Atendente ana = cadastrarAtendente("Ana");
+        cadastrarAtendente("Bruno");
+
+        int quantidade = 2 * Atendente.MAX_ATENDIMENTOS - 1;
+        for (int i = 0; i < quantidade; i++) {
+            Atendimento atendimento = criarAtendimento(TIME, StatusAtendimento.AGUARDANDO_ATENDIMENTO);
+            registro.atendimentoCriado(TIME);
+            filaService.enfileirar(atendimento);
+            registro.enfileirado(TIME);
+        }
+        assertEquals(recontagem(TIME), registro.contagem(TIME));
+
+        // Distribuição: reserva as vagas (Ana lota) e retira da fila
+        List<Atendente> reservados = atendenteService.reservarVagas(TIME, quantidade);
+        List<Atendimento> lote = filaService.desenfileirarLote(TIME, reservados.size());
+        registro.desenfileirados(TIME, lote.size());
+        lote.forEach(atendimento -> alterarStatus(atendimento, StatusAtendimento.EM_ATENDIMENTO));
+
+        RegistroMetricas.Contagem contagem = registro.contagem(TIME);
+        assertEquals(recontagem(TIME), contagem);
+        assertEquals(1, contagem.atendentesLotados());
+        assertEquals(quantidade - lote.size(), contagem.tamanhoFila());
+
+        // Finalização libera a vaga do atendente lotado
+        alterarStatus(lote.get(0), StatusAtendimento.FINALIZADO);
+        assertTrue(atendenteService.liberarVaga(ana));
+
+        assertEquals(recontagem(TIME), registro.contagem(TIME));
+        assertEquals(0, registro.contagem(TIME).atendentesLotados());
+    }
+
+    @Test
+    void cadastrar_RecadastroDeAtendenteLotadoNaoDeveDuplicarContagem() {
+        registro.carregarEstadoInicial();
+        Atendente ana = cadastrarAtendente("Ana");
+        atendenteService.reservarVagas(TIME, Atendente.MAX_ATENDIMENTOS);
+        assertEquals(new RegistroMetricas.Contagem(0, 0, 1, 1), registro.contagem(TIME));
+
+        atendenteService.cadastrar(Atendente.builder().id(ana.getId()).nome("Ana").time(TIME).build());
+
+        assertEquals(new RegistroMetricas.Contagem(0, 0, 1, 0), registro.contagem(TIME));
+        assertEquals(recontagem(TIME), registro.contagem(TIME));
+    }
+
+    @Test
+    void statusAlterado_SemMudancaDeStatusNaoDeveAlterarContagem() {
+        registro.carregarEstadoInicial();
+        registro.statusAlterado(TIME, null, StatusAtendimento.EM_ATENDIMENTO);
+        registro.statusAlterado(TIME, StatusAtendimento.EM_ATENDIMENTO, StatusAtendimento.EM_ATENDIMENTO);
+
+        assertEquals(1, registro.contagem(TIME).atendimentosAtivos());
+
+        registro.statusAlterado(TIME, StatusAtendimento.EM_ATENDIMENTO, null);
+        assertEquals(0, registro.contagem(TIME).atendimentosAtivos());
+    }
+
+    @Test
+    void contagem_FilaNaoDeveFicarNegativa() {
+        registro.carregarEstadoInicial();
+        registro.enfileirado(TIME);
+        registro.desenfileirados(TIME, 2);
+
+        assertEquals(0, registro.contagem(TIME).tamanhoFila());
+        assertEquals(0, registro.contagens().totalNaFila());
+    }
+}
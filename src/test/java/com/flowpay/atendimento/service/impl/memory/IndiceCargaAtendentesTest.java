@@ -0,0 +1,88 @@
+package com.flowpay.atendimento.service.impl.memory;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceCargaAtendentesTest {
+
+    private final List<String> disponibilidades = new ArrayList<>();
+    private IndiceCargaAtendentes indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceCargaAtendentes((atendente, disponivel) ->
+                disponibilidades.add(atendente.getId() + ":" + disponivel));
+    }
+
+    private Atendente registrar(long id, int carga) {
+        Atendente atendente = Atendente.builder()
+                .id(id)
+                .nome("Atendente " + id)
+                .time(Time.CARTOES)
+                .atendimentosAtivos(carga)
+                .build();
+        indice.registrar(atendente);
+        return atendente;
+    }
+
+    @Test
+    void reservar_DeveEscolherOMenosCarregadoEDesempatarPorId() {
+        Atendente a1 = registrar(1, 1);
+        Atendente a2 = registrar(2, 0);
+        Atendente a3 = registrar(3, 0);
+
+        assertSame(a2, indice.reservar(Time.CARTOES));
+        assertSame(a3, indice.reservar(Time.CARTOES));
+        assertSame(a1, indice.reservar(Time.CARTOES));
+        assertEquals(List.of(a2, a3, a1), indice.disponiveis(Time.CARTOES));
+        assertNull(indice.menosCarregado(Time.EMPRESTIMOS));
+    }
+
+    @Test
+    void cargaAlterada_AoLotarEVoltarDeveSairEVoltarAoIndice() {
+        Atendente atendente = registrar(1, Atendente.MAX_ATENDIMENTOS - 1);
+
+        assertSame(atendente, indice.reservar(Time.CARTOES));
+        assertNull(indice.reservar(Time.CARTOES));
+        assertTrue(indice.disponiveis(Time.CARTOES).isEmpty());
+
+        atendente.liberarVaga();
+
+        assertEquals(List.of(atendente), indice.disponiveis(Time.CARTOES));
+        assertEquals(List.of("1:false", "1:true"), disponibilidades);
+    }
+
+    @Test
+    void remover_DeveRetirarDeTodasAsFaixasEIgnorarMudancasDeCarga() {
+        Atendente atendente = registrar(1, 0);
+
+        indice.remover(atendente);
+        atendente.tentarReservarVaga();
+        atendente.liberarVaga();
+
+        assertNull(atendente.getObservadorCarga());
+        assertTrue(indice.disponiveis(Time.CARTOES).isEmpty());
+        assertNull(indice.reservar(Time.CARTOES));
+    }
+
+    @Test
+    void cargaAlterada_NotificadaAntesDoRemoverNaoDeveRecolocarNoIndice() {
+        Atendente atendente = registrar(1, Atendente.MAX_ATENDIMENTOS);
+
+        // Notificação que leu o observador antes do remover e só chega ao índice depois dele
+        indice.remover(atendente);
+        atendente.liberarVaga();
+        indice.cargaAlterada(atendente, Atendente.MAX_ATENDIMENTOS, Atendente.MAX_ATENDIMENTOS - 1);
+
+        assertTrue(indice.disponiveis(Time.CARTOES).isEmpty());
+        assertNull(indice.menosCarregado(Time.CARTOES));
+        assertTrue(disponibilidades.isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlocadorIdsRedisTest {
+
+    private static final String CONTADOR = "atendimento:id:counter";
+
+    // Contador compartilhado, como o do Redis, entre as "instâncias" do teste
+    private final AtomicLong contadorRedis = new AtomicLong();
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(eq(CONTADOR), anyLong()))
+                .thenAnswer(invocation -> contadorRedis.addAndGet(invocation.getArgument(1)));
+    }
+
+    private AlocadorIdsRedis criarAlocador(MeterRegistry meterRegistry, long bloco) {
+        return new AlocadorIdsRedis(redisTemplate, meterRegistry, bloco);
+    }
+
+    @Test
+    void proximo_DeveReservarNovoBlocoSoQuandoOAtualAcaba() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AlocadorIdsRedis alocador = criarAlocador(meterRegistry, 3);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(alocador.proximo(CONTADOR));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids);
+        assertEquals(9, contadorRedis.get());
+        assertEquals(3, meterRegistry.counter("flowpay.redis.ids.reservas").count());
+    }
+
+    @Test
+    void proximo_DeveAlternarBlocosEntreInstancias() {
+        AlocadorIdsRedis instanciaA = criarAlocador(new SimpleMeterRegistry(), 3);
+        AlocadorIdsRedis instanciaB = criarAlocador(new SimpleMeterRegistry(), 3);
+
+        assertEquals(1L, instanciaA.proximo(CONTADOR));
+        assertEquals(4L, instanciaB.proximo(CONTADOR));
+        assertEquals(2L, instanciaA.proximo(CONTADOR));
+        assertEquals(3L, instanciaA.proximo(CONTADOR));
+        // Bloco da instância A esgotado: o próximo começa depois do bloco de B
+        assertEquals(7L, instanciaA.proximo(CONTADOR));
+        assertEquals(5L, instanciaB.proximo(CONTADOR));
+    }
+
+    @Test
+    void proximo_ConcorrenteDeveGerarIdsUnicosECrescentesPorThread() throws Exception {
+        AlocadorIdsRedis instanciaA = criarAlocador(new SimpleMeterRegistry(), 7);
+        AlocadorIdsRedis instanciaB = criarAlocador(new SimpleMeterRegistry(), 7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        int threads = 8;
+        int porThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                AlocadorIdsRedis alocador = t % 2 == 0 ? instanciaA : instanciaB;
+                futures.add(executor.submit(() -> {
+                    long anterior = 0;
+                    for (int i = 0; i < porThread; i++) {
+                        long id = alocador.proximo(CONTADOR);
+                        assertTrue(id > anterior, "IDs de uma mesma thread devem ser crescentes");
+                        assertTrue(ids.add(id), "ID repetido: " + id);
+                        anterior = id;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * porThread, ids.size());
+        // No máximo um bloco parcialmente usado por instância
+        assertTrue(contadorRedis.get() - ids.size() < 2 * 7);
+    }
+
+    @Test
+    void construtor_DeveRejeitarBlocoMenorQueUm() {
+        assertThrows(IllegalArgumentException.class, () -> criarAlocador(new SimpleMeterRegistry(), 0));
+    }
+}
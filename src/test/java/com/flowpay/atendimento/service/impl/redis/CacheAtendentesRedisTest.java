@@ -0,0 +1,130 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.Atendente;
+import com.flowpay.atendimento.model.Time;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CacheAtendentesRedisTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+    }
+
+    private CacheAtendentesRedis criarCache(int tamanho, long ttlMs) {
+        return new CacheAtendentesRedis(stringRedisTemplate, mock(RedisMessageListenerContainer.class),
+                meterRegistry, tamanho, ttlMs);
+    }
+
+    private Atendente criarAtendente(Long id, String nome) {
+        return Atendente.builder()
+                .id(id)
+                .nome(nome)
+                .time(Time.CARTOES)
+                .build();
+    }
+
+    private double remocoes(String motivo) {
+        return meterRegistry.counter("flowpay.redis.cache-atendentes.remocoes", "motivo", motivo).count();
+    }
+
+    @Test
+    void buscar_DeveContarAcertosEFaltas() {
+        CacheAtendentesRedis cache = criarCache(10, 60_000);
+
+        assertTrue(cache.buscar(1L).isEmpty());
+        cache.guardar(criarAtendente(1L, "João"), cache.geracao());
+
+        Optional<CacheAtendentesRedis.Identidade> identidade = cache.buscar(1L);
+
+        assertTrue(identidade.isPresent());
+        assertEquals("João", identidade.get().nome());
+        assertEquals(Time.CARTOES, identidade.get().time());
+        assertEquals(1, meterRegistry.counter("flowpay.redis.cache-atendentes.acertos").count());
+        assertEquals(1, meterRegistry.counter("flowpay.redis.cache-atendentes.faltas").count());
+    }
+
+    @Test
+    void guardar_DeveRemoverOMenosUsadoAoPassarDoTamanho() {
+        CacheAtendentesRedis cache = criarCache(2, 60_000);
+
+        cache.guardar(criarAtendente(1L, "A1"), cache.geracao());
+        cache.guardar(criarAtendente(2L, "A2"), cache.geracao());
+        cache.buscar(1L);
+        cache.guardar(criarAtendente(3L, "A3"), cache.geracao());
+
+        assertTrue(cache.buscar(1L).isPresent());
+        assertTrue(cache.buscar(2L).isEmpty());
+        assertTrue(cache.buscar(3L).isPresent());
+        assertEquals(1, remocoes("tamanho"));
+        assertEquals(2, meterRegistry.get("flowpay.redis.cache-atendentes.tamanho").gauge().value());
+    }
+
+    @Test
+    void buscar_DeveDescartarEntradaExpirada() throws InterruptedException {
+        CacheAtendentesRedis cache = criarCache(10, 20);
+
+        cache.guardar(criarAtendente(1L, "A1"), cache.geracao());
+        Thread.sleep(50);
+
+        assertTrue(cache.buscar(1L).isEmpty());
+        assertEquals(1, remocoes("ttl"));
+    }
+
+    @Test
+    void guardar_DeveIgnorarLeituraConcorrenteComInvalidacao() {
+        CacheAtendentesRedis cache = criarCache(10, 60_000);
+
+        // Leitura começou antes do recadastro e termina depois dele
+        long geracao = cache.geracao();
+        cache.invalidarLocal(1L);
+        cache.guardar(criarAtendente(1L, "Nome antigo"), geracao);
+
+        assertTrue(cache.buscar(1L).isEmpty());
+
+        cache.guardar(criarAtendente(1L, "Nome novo"), cache.geracao());
+        assertEquals("Nome novo", cache.buscar(1L).orElseThrow().nome());
+    }
+
+    @Test
+    void invalidar_DeveRemoverLocalmenteEPublicarParaAsOutrasInstancias() {
+        CacheAtendentesRedis cache = criarCache(10, 60_000);
+        cache.guardar(criarAtendente(1L, "A1"), cache.geracao());
+
+        cache.invalidar(1L);
+
+        assertTrue(cache.buscar(1L).isEmpty());
+        assertEquals(1, remocoes("invalidacao"));
+        verify(stringRedisTemplate).convertAndSend(CacheAtendentesRedis.CANAL, "1");
+    }
+
+    @Test
+    void onMessage_DeveRemoverAtendenteInvalidadoPorOutraInstancia() {
+        CacheAtendentesRedis cache = criarCache(10, 60_000);
+        cache.guardar(criarAtendente(7L, "A7"), cache.geracao());
+
+        cache.onMessage(new DefaultMessage(CacheAtendentesRedis.CANAL.getBytes(StandardCharsets.UTF_8),
+                "7".getBytes(StandardCharsets.UTF_8)), null);
+        cache.onMessage(new DefaultMessage(CacheAtendentesRedis.CANAL.getBytes(StandardCharsets.UTF_8),
+                "inválido".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertTrue(cache.buscar(7L).isEmpty());
+        assertEquals(1, remocoes("invalidacao"));
+    }
+}
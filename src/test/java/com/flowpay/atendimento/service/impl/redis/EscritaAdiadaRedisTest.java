@@ -0,0 +1,224 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.Atendimento;
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EscritaAdiadaRedisTest {
+
+    // Chaves gravadas pelos pipelines, como ficariam no Redis
+    private final Map<String, Object> valores = new ConcurrentHashMap<>();
+    private final Map<Object, Object> ativos = new ConcurrentHashMap<>();
+    private final Map<String, Set<Object>> ativosPorTime = new ConcurrentHashMap<>();
+    private final AtomicInteger pipelines = new AtomicInteger();
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private EscritaAdiadaRedis escrita;
+
+    // Executado dentro do próximo pipeline, simulando uma alteração concorrente à descarga
+    private Runnable duranteDescarga;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisOperations<String, Object> operacoes = mock(RedisOperations.class);
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        SetOperations<String, Object> setOperations = mock(SetOperations.class);
+        when(operacoes.opsForValue()).thenReturn(valueOperations);
+        doReturn(hashOperations).when(operacoes).opsForHash();
+        when(operacoes.opsForSet()).thenReturn(setOperations);
+
+        doAnswer(invocation -> valores.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(any(), any());
+        doAnswer(invocation -> ativos.put(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(hashOperations).put(eq(RedisAtendimentosAtivosService.ATIVOS_KEY), any(), any());
+        when(setOperations.add(any(), any())).thenAnswer(invocation -> {
+            ativosPorTime.computeIfAbsent(invocation.getArgument(0), k -> new HashSet<>())
+                    .add(invocation.getArgument(1));
+            return 1L;
+        });
+
+        redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            pipelines.incrementAndGet();
+            if (duranteDescarga != null) {
+                duranteDescarga.run();
+                duranteDescarga = null;
+            }
+            invocation.<SessionCallback<Object>>getArgument(0).execute(operacoes);
+            return List.of();
+        });
+
+        escrita = criar(500, 50);
+    }
+
+    private EscritaAdiadaRedis criar(int tamanhoLote, long intervaloMs) {
+        meterRegistry = new SimpleMeterRegistry();
+        return new EscritaAdiadaRedis(redisTemplate, meterRegistry, tamanhoLote, intervaloMs);
+    }
+
+    private static Atendimento atendimento(long id, StatusAtendimento status) {
+        return Atendimento.builder()
+                .id(id)
+                .time(Time.CARTOES)
+                .nomeCliente("Cliente " + id)
+                .assunto("Assunto")
+                .status(status)
+                .build();
+    }
+
+    private double pendentes() {
+        return meterRegistry.get("flowpay.redis.escrita-adiada.pendentes").gauge().value();
+    }
+
+    @Test
+    void atendimento_AlteracoesSeguidasDevemSeFundirEmUmaGravacao() {
+        escrita.atendimento(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+        escrita.atendimento(atendimento(1, StatusAtendimento.FINALIZADO));
+        assertEquals(1, pendentes());
+
+        assertTrue(escrita.descarregar());
+
+        assertEquals(1, pipelines.get());
+        assertEquals(Set.of("atendimento:1"), valores.keySet());
+        assertEquals(StatusAtendimento.FINALIZADO, ((Atendimento) valores.get("atendimento:1")).getStatus());
+        assertEquals(1, meterRegistry.counter("flowpay.redis.escrita-adiada.gravados").count());
+        assertEquals(0, pendentes());
+    }
+
+    @Test
+    void descarregar_DeveGravarAtendimentosERegistrosDeAtivosNoMesmoPipeline() {
+        escrita.atendimento(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+        escrita.atendimento(atendimento(2, StatusAtendimento.EM_ATENDIMENTO));
+        escrita.ativo(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+        escrita.ativo(atendimento(2, StatusAtendimento.EM_ATENDIMENTO));
+
+        assertTrue(escrita.descarregar());
+
+        assertEquals(1, pipelines.get());
+        assertEquals(Set.of("atendimento:1", "atendimento:2"), valores.keySet());
+        assertEquals(Set.of("1", "2"), ativos.keySet());
+        assertEquals(Set.of(1L, 2L), ativosPorTime.get(RedisAtendimentosAtivosService.getAtivosTimeKey(Time.CARTOES)));
+        assertEquals(4, meterRegistry.counter("flowpay.redis.escrita-adiada.gravados").count());
+
+        // Sem pendentes, a descarga seguinte não abre pipeline
+        assertTrue(escrita.descarregar());
+        assertEquals(1, pipelines.get());
+    }
+
+    @Test
+    void atendimentoPendente_DeveLerOUltimoEstadoAteAGravacao() {
+        Atendimento original = atendimento(1, StatusAtendimento.EM_ATENDIMENTO);
+        escrita.atendimento(original);
+        escrita.ativo(original);
+
+        // O buffer guarda uma cópia: alterar o objeto depois não muda o que será gravado
+        original.setStatus(StatusAtendimento.FINALIZADO);
+
+        Optional<Atendimento> pendente = escrita.atendimentoPendente(1L);
+        assertTrue(pendente.isPresent());
+        assertEquals(StatusAtendimento.EM_ATENDIMENTO, pendente.get().getStatus());
+        assertEquals(1L, escrita.ativoPendente(1L).orElseThrow().getId());
+        assertEquals(1, escrita.ativosPendentes().size());
+        assertTrue(escrita.atendimentoPendente(2L).isEmpty());
+
+        escrita.descarregar();
+
+        assertTrue(escrita.atendimentoPendente(1L).isEmpty());
+        assertTrue(escrita.ativoPendente(1L).isEmpty());
+    }
+
+    @Test
+    void descarregar_AlteracaoDuranteAGravacaoDeveContinuarPendente() {
+        escrita.atendimento(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+        duranteDescarga = () -> escrita.atendimento(atendimento(1, StatusAtendimento.FINALIZADO));
+
+        assertTrue(escrita.descarregar());
+
+        assertEquals(StatusAtendimento.EM_ATENDIMENTO, ((Atendimento) valores.get("atendimento:1")).getStatus());
+        assertEquals(StatusAtendimento.FINALIZADO, escrita.atendimentoPendente(1L).orElseThrow().getStatus());
+
+        assertTrue(escrita.descarregar());
+        assertEquals(StatusAtendimento.FINALIZADO, ((Atendimento) valores.get("atendimento:1")).getStatus());
+        assertTrue(escrita.atendimentoPendente(1L).isEmpty());
+    }
+
+    @Test
+    void descarregar_ComFalhaDeveManterPendentesParaAProxima() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis indisponível"))
+                .thenAnswer(invocation -> {
+                    pipelines.incrementAndGet();
+                    return List.of();
+                });
+        escrita.atendimento(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+
+        assertFalse(escrita.descarregar());
+        assertEquals(1, meterRegistry.counter("flowpay.redis.escrita-adiada.falhas").count());
+        assertTrue(escrita.atendimentoPendente(1L).isPresent());
+
+        assertTrue(escrita.descarregar());
+        assertTrue(escrita.atendimentoPendente(1L).isEmpty());
+    }
+
+    @Test
+    void cancelarAtivo_DeveRetirarORegistroAntesDaGravacao() {
+        escrita.ativo(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+
+        assertEquals(1L, escrita.cancelarAtivo(1L).orElseThrow().getId());
+        assertTrue(escrita.cancelarAtivo(1L).isEmpty());
+
+        assertTrue(escrita.descarregar());
+        assertEquals(0, pipelines.get());
+        assertTrue(ativos.isEmpty());
+    }
+
+    @Test
+    void atendimento_AoAtingirOLoteDeveDescarregarSemEsperarOIntervalo() {
+        escrita = criar(2, 60_000);
+
+        escrita.atendimento(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+        escrita.ativo(atendimento(1, StatusAtendimento.EM_ATENDIMENTO));
+
+        verify(redisTemplate, timeout(5_000)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void encerrar_DeveGravarOsPendentes() {
+        escrita = criar(500, 60_000);
+        escrita.iniciar();
+        escrita.atendimento(atendimento(1, StatusAtendimento.FINALIZADO));
+        escrita.ativo(atendimento(2, StatusAtendimento.EM_ATENDIMENTO));
+
+        escrita.encerrar();
+
+        assertEquals(Set.of("atendimento:1"), valores.keySet());
+        assertEquals(Set.of("2"), ativos.keySet());
+        assertTrue(escrita.atendimentoPendente(1L).isEmpty());
+        assertTrue(escrita.ativoPendente(2L).isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.model.StatusAtendimento;
+import com.flowpay.atendimento.model.Time;
+import com.flowpay.atendimento.service.AtendenteService;
+import com.flowpay.atendimento.service.AtendimentosAtivosService;
+import com.flowpay.atendimento.service.FilaService;
+import com.flowpay.atendimento.service.RegistroMetricas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RedisRegistroMetricasTest {
+
+    // Hashes compartilhados, como os do Redis, entre as "instâncias" do teste
+    private final Map<String, Map<Object, Long>> hashesRedis = new ConcurrentHashMap<>();
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+
+        when(hashOperations.increment(anyString(), any(), anyLong())).thenAnswer(invocation ->
+                hashesRedis.computeIfAbsent(invocation.getArgument(0), k -> new ConcurrentHashMap<>())
+                        .merge(invocation.getArgument(1), invocation.getArgument(2), Long::sum));
+        when(hashOperations.multiGet(anyString(), any())).thenAnswer(invocation -> {
+            Map<Object, Long> hash = hashesRedis.getOrDefault(invocation.<String>getArgument(0), Map.of());
+            return invocation.<Collection<Object>>getArgument(1).stream()
+                    .map(campo -> hash.containsKey(campo) ? String.valueOf(hash.get(campo)) : null)
+                    .toList();
+        });
+    }
+
+    private RedisRegistroMetricas criarRegistro() {
+        return new RedisRegistroMetricas(stringRedisTemplate,
+                mock(AtendenteService.class), mock(AtendimentosAtivosService.class), mock(FilaService.class));
+    }
+
+    @Test
+    void contagem_DeveRefletirTransicoesDeOutraInstancia() {
+        RedisRegistroMetricas instanciaA = criarRegistro();
+        RedisRegistroMetricas instanciaB = criarRegistro();
+
+        instanciaA.atendenteCadastrado(Time.CARTOES);
+        instanciaB.atendenteCadastrado(Time.CARTOES);
+        instanciaA.enfileirado(Time.CARTOES);
+        instanciaA.enfileirado(Time.CARTOES);
+        instanciaB.desenfileirados(Time.CARTOES, 1);
+        instanciaB.statusAlterado(Time.CARTOES, StatusAtendimento.AGUARDANDO_ATENDIMENTO, StatusAtendimento.EM_ATENDIMENTO);
+        instanciaA.disponibilidadeAlterada(Time.CARTOES, false);
+
+        RegistroMetricas.Contagem esperada = new RegistroMetricas.Contagem(1, 1, 2, 1);
+        assertEquals(esperada, instanciaA.contagem(Time.CARTOES));
+        assertEquals(esperada, instanciaB.contagem(Time.CARTOES));
+        assertEquals(1, instanciaA.contagem(Time.CARTOES).atendentesDisponiveis());
+    }
+
+    @Test
+    void statusAlterado_SoDeveGravarQuandoEnvolveEmAtendimento() {
+        RedisRegistroMetricas registro = criarRegistro();
+
+        registro.atendimentoCriado(Time.OUTROS);
+        registro.statusAlterado(Time.OUTROS, null, StatusAtendimento.AGUARDANDO_ATENDIMENTO);
+        assertFalse(hashesRedis.containsKey(RedisRegistroMetricas.getMetricasKey(Time.OUTROS)));
+
+        registro.statusAlterado(Time.OUTROS, StatusAtendimento.AGUARDANDO_ATENDIMENTO, StatusAtendimento.EM_ATENDIMENTO);
+        registro.statusAlterado(Time.OUTROS, StatusAtendimento.EM_ATENDIMENTO, StatusAtendimento.FINALIZADO);
+
+        assertEquals(0, registro.contagem(Time.OUTROS).atendimentosAtivos());
+        assertEquals(Map.of(RedisRegistroMetricas.CAMPO_ATIVOS, 0L),
+                hashesRedis.get(RedisRegistroMetricas.getMetricasKey(Time.OUTROS)));
+    }
+
+    @Test
+    void contagem_SemHashDeveSerZeroEFilaNuncaNegativa() {
+        RedisRegistroMetricas registro = criarRegistro();
+
+        assertEquals(new RegistroMetricas.Contagem(0, 0, 0, 0), registro.contagem(Time.EMPRESTIMOS));
+
+        registro.desenfileirados(Time.EMPRESTIMOS, 2);
+        assertEquals(0, registro.contagem(Time.EMPRESTIMOS).tamanhoFila());
+        assertEquals(List.of(RedisRegistroMetricas.CAMPO_FILA),
+                List.copyOf(hashesRedis.get(RedisRegistroMetricas.getMetricasKey(Time.EMPRESTIMOS)).keySet()));
+    }
+}
@@ -0,0 +1,220 @@
+package com.flowpay.atendimento.service.impl.redis;
+
+import com.flowpay.atendimento.service.impl.PublicadorMensagens;
+import com.flowpay.atendimento.service.impl.RegistroAssinaturas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RelayClusterRedisTest {
+
+    private static final String FILA_CARTOES = "/topic/fila/CARTOES";
+    private static final String DASHBOARD = "/topic/dashboard";
+
+    // Sets de assinaturas e sorted set de instâncias, como os do Redis, entre as "instâncias" do teste
+    private final Map<String, Set<String>> setsRedis = new ConcurrentHashMap<>();
+    private final Map<String, Double> instanciasRedis = new ConcurrentHashMap<>();
+    private List<Object> resultadosPipeline;
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RegistroAssinaturas registroA;
+    private RegistroAssinaturas registroB;
+    private PublicadorMensagens publicadorA;
+    private PublicadorMensagens publicadorB;
+    private RelayClusterRedis relayA;
+    private RelayClusterRedis relayB;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        // MULTI/EXEC: os comandos rodam direto no "Redis" do teste
+        when(stringRedisTemplate.execute(any(SessionCallback.class)))
+                .thenAnswer(invocation -> invocation.<SessionCallback<Object>>getArgument(0).execute(stringRedisTemplate));
+        when(stringRedisTemplate.exec()).thenReturn(List.of());
+        when(stringRedisTemplate.delete(anyString()))
+                .thenAnswer(invocation -> setsRedis.remove(invocation.<String>getArgument(0)) != null);
+        when(setOperations.add(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            String[] membros = (String[]) invocation.getRawArguments()[1];
+            Set<String> set = setsRedis.computeIfAbsent(invocation.getArgument(0), k -> ConcurrentHashMap.newKeySet());
+            set.addAll(List.of(membros));
+            return (long) membros.length;
+        });
+
+        when(zSetOperations.add(eq(RelayClusterRedis.INSTANCIAS_KEY), anyString(), anyDouble()))
+                .thenAnswer(invocation -> instanciasRedis.put(invocation.getArgument(1), invocation.getArgument(2)) == null);
+        when(zSetOperations.removeRangeByScore(eq(RelayClusterRedis.INSTANCIAS_KEY), anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> {
+                    double min = invocation.getArgument(1);
+                    double max = invocation.getArgument(2);
+                    return (long) (instanciasRedis.values().removeIf(score -> score >= min && score <= max) ? 1 : 0);
+                });
+        when(zSetOperations.range(eq(RelayClusterRedis.INSTANCIAS_KEY), anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Set<String> membros = new LinkedHashSet<>();
+                    instanciasRedis.entrySet().stream()
+                            .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                            .forEach(entrada -> membros.add(entrada.getKey()));
+                    return membros;
+                });
+        when(zSetOperations.remove(eq(RelayClusterRedis.INSTANCIAS_KEY), any()))
+                .thenAnswer(invocation -> instanciasRedis.remove(invocation.<String>getArgument(1)) != null ? 1L : 0L);
+
+        // Pipeline: cada SMEMBERS acrescenta o resultado à lista devolvida por executePipelined
+        RedisOperations<String, String> pipeline = mock(RedisOperations.class);
+        SetOperations<String, String> setPipeline = mock(SetOperations.class);
+        when(pipeline.opsForSet()).thenReturn(setPipeline);
+        when(setPipeline.members(anyString())).thenAnswer(invocation -> {
+            resultadosPipeline.add(Set.copyOf(setsRedis.getOrDefault(invocation.<String>getArgument(0), Set.of())));
+            return null;
+        });
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            resultadosPipeline = new ArrayList<>();
+            invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+            return resultadosPipeline;
+        });
+
+        registroA = spy(new RegistroAssinaturas(new SimpleMeterRegistry()));
+        registroB = spy(new RegistroAssinaturas(new SimpleMeterRegistry()));
+        publicadorA = mock(PublicadorMensagens.class);
+        publicadorB = mock(PublicadorMensagens.class);
+        relayA = criarRelay(publicadorA, registroA);
+        relayB = criarRelay(publicadorB, registroB);
+    }
+
+    private RelayClusterRedis criarRelay(PublicadorMensagens publicador, RegistroAssinaturas registro) {
+        return new RelayClusterRedis(stringRedisTemplate, mock(RedisMessageListenerContainer.class),
+                publicador, registro, JsonMapper.builder().build(), new SimpleMeterRegistry(), 1000);
+    }
+
+    private void assinarLocalmente(RegistroAssinaturas registro, String... destinos) {
+        doReturn(Set.of(destinos)).when(registro).destinosLocais();
+    }
+
+    private void sincronizarAmbas() {
+        relayA.sincronizarAssinaturas();
+        relayB.sincronizarAssinaturas();
+        relayA.sincronizarAssinaturas();
+    }
+
+    private static Message mensagem(String corpo) {
+        return new DefaultMessage(RelayClusterRedis.CANAL.getBytes(StandardCharsets.UTF_8),
+                corpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sincronizarAssinaturas_DeveReceberSoOsDestinosDasOutrasInstancias() {
+        assinarLocalmente(registroA, DASHBOARD);
+        assinarLocalmente(registroB, FILA_CARTOES);
+
+        sincronizarAmbas();
+
+        assertTrue(registroA.temAssinanteRemoto(FILA_CARTOES));
+        assertFalse(registroA.temAssinanteRemoto(DASHBOARD));
+        assertTrue(registroB.temAssinanteRemoto(DASHBOARD));
+        assertFalse(registroB.temAssinanteRemoto(FILA_CARTOES));
+        assertEquals(2, instanciasRedis.size());
+    }
+
+    @Test
+    void sincronizarAssinaturas_SemAssinaturasOuEncerradaDeveDeixarDeContar() {
+        assinarLocalmente(registroB, FILA_CARTOES, DASHBOARD);
+        sincronizarAmbas();
+        assertTrue(registroA.temAssinanteRemoto(DASHBOARD));
+
+        // A última sessão de B cancelou a assinatura do dashboard
+        assinarLocalmente(registroB, FILA_CARTOES);
+        relayB.sincronizarAssinaturas();
+        relayA.sincronizarAssinaturas();
+        assertFalse(registroA.temAssinanteRemoto(DASHBOARD));
+        assertTrue(registroA.temAssinanteRemoto(FILA_CARTOES));
+
+        relayB.encerrar();
+        relayA.sincronizarAssinaturas();
+        assertFalse(registroA.temAssinanteRemoto(FILA_CARTOES));
+        assertEquals(1, instanciasRedis.size());
+    }
+
+    @Test
+    void sincronizarAssinaturas_ComFalhaNoRedisDeveManterOsRemotosAnteriores() {
+        assinarLocalmente(registroB, FILA_CARTOES);
+        sincronizarAmbas();
+
+        when(stringRedisTemplate.execute(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis indisponível"));
+
+        assertDoesNotThrow(relayA::sincronizarAssinaturas);
+        assertTrue(registroA.temAssinanteRemoto(FILA_CARTOES));
+    }
+
+    @Test
+    void publicar_SemAssinanteRemotoNaoDevePublicar() {
+        assinarLocalmente(registroA, FILA_CARTOES);
+        sincronizarAmbas();
+
+        relayA.publicar("{}".getBytes(StandardCharsets.UTF_8), FILA_CARTOES, DASHBOARD);
+
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void publicar_DeveEnviarSoOsDestinosComAssinanteRemoto() {
+        assinarLocalmente(registroB, FILA_CARTOES);
+        sincronizarAmbas();
+        byte[] json = "{\"tipo\":\"ATUALIZACAO_FILA\"}".getBytes(StandardCharsets.UTF_8);
+
+        relayA.publicar(json, FILA_CARTOES, DASHBOARD);
+
+        ArgumentCaptor<Object> evento = ArgumentCaptor.forClass(Object.class);
+        verify(stringRedisTemplate).convertAndSend(eq(RelayClusterRedis.CANAL), evento.capture());
+
+        // O pub/sub entrega a todas as instâncias, inclusive à que publicou
+        relayA.onMessage(mensagem((String) evento.getValue()), null);
+        relayB.onMessage(mensagem((String) evento.getValue()), null);
+
+        verifyNoInteractions(publicadorA);
+        verify(publicadorB).enviar(aryEq(json), eq(FILA_CARTOES));
+    }
+
+    @Test
+    void onMessage_EventoInvalidoDeveSerIgnorado() {
+        assertDoesNotThrow(() -> relayB.onMessage(mensagem("{"), null));
+
+        verifyNoInteractions(publicadorB);
+    }
+}